@@ -0,0 +1,55 @@
+package com.vamint.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vamint.dto.AttendanceStatsResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+// Present/total counters per student id. Writes drop the entry once they commit so
+// the next read reloads it from the student summary row; expireAfterWrite bounds how long
+// any entry that slipped past an invalidation can stay wrong.
+@Component
+public class AttendanceStatsCache {
+
+    private final Cache<Long, Counters> cache;
+
+    public AttendanceStatsCache(MeterRegistry meterRegistry,
+            @Value("${cache.attendance-stats.max-entries:50000}") long maxEntries,
+            @Value("${cache.attendance-stats.ttl:PT10M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "attendanceStats");
+    }
+
+    public AttendanceStatsResponse get(Long studentId, Function<Long, AttendanceStatsResponse> loader) {
+        Counters counters = cache.get(studentId, id -> {
+            AttendanceStatsResponse stats = loader.apply(id);
+            return new Counters(stats.getPresentCount(), stats.getTotalLectures());
+        });
+        return new AttendanceStatsResponse(counters.total(), counters.present());
+    }
+
+    // Drops the entries once the surrounding transaction commits
+    public void invalidateAfterCommit(Collection<Long> studentIds) {
+        List<Long> ids = List.copyOf(studentIds);
+        AfterCommit.run(() -> cache.invalidateAll(ids));
+    }
+
+    public void invalidateAllAfterCommit() {
+        AfterCommit.run(cache::invalidateAll);
+    }
+
+    private record Counters(long present, long total) {
+    }
+}
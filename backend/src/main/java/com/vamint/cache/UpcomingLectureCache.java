@@ -0,0 +1,81 @@
+package com.vamint.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.vamint.dto.LectureResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+// In-process cache for the student dashboard's upcoming-lectures list.
+// An entry never outlives the start of its first lecture (that lecture stops being "upcoming"),
+// and lecture writes drop only the entries whose window contains the changed date.
+@Component
+public class UpcomingLectureCache {
+
+    private final Cache<Key, List<LectureResponse>> cache;
+    private final Duration maxTtl;
+
+    public UpcomingLectureCache(MeterRegistry meterRegistry,
+            @Value("${cache.upcoming-lectures.max-ttl:PT1M}") Duration maxTtl,
+            @Value("${cache.upcoming-lectures.max-entries:64}") long maxEntries) {
+        this.maxTtl = maxTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new UntilNextLecture())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "upcomingLectures");
+    }
+
+    public List<LectureResponse> get(LocalDateTime to, int limit, boolean includeDescription,
+            Supplier<List<LectureResponse>> loader) {
+        return cache.get(new Key(to, limit, includeDescription), key -> List.copyOf(loader.get()));
+    }
+
+    // Called after a lecture at this date/time was created, moved or deleted
+    public void invalidate(LocalDateTime dateTime) {
+        if (dateTime == null || dateTime.isBefore(LocalDateTime.now()))
+            return;
+        cache.asMap().keySet().removeIf(key -> key.to() == null || dateTime.isBefore(key.to()));
+    }
+
+    // Same, deferred until the surrounding transaction commits
+    public void invalidateAfterCommit(LocalDateTime dateTime) {
+        AfterCommit.run(() -> invalidate(dateTime));
+    }
+
+    private record Key(LocalDateTime to, int limit, boolean includeDescription) {
+    }
+
+    private class UntilNextLecture implements Expiry<Key, List<LectureResponse>> {
+
+        @Override
+        public long expireAfterCreate(Key key, List<LectureResponse> value, long currentTime) {
+            Duration ttl = maxTtl;
+            if (!value.isEmpty()) {
+                Duration untilStart = Duration.between(LocalDateTime.now(), value.get(0).getDateTime());
+                if (untilStart.compareTo(ttl) < 0)
+                    ttl = untilStart.isNegative() ? Duration.ZERO : untilStart;
+            }
+            return ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, List<LectureResponse> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, List<LectureResponse> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.vamint.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// Enabled by the "virtual" profile: with virtual threads there is no request-thread cap left to keep
+// thousands of concurrent requests away from the 10-connection pool, so this puts one in front of it
+@Configuration
+@ConditionalOnProperty(name = "jdbc.limiter.enabled", havingValue = "true")
+public class JdbcLimiterConfig {
+
+    @Bean
+    public static BeanPostProcessor limitingDataSourcePostProcessor(
+            @Value("${jdbc.limiter.permits:10}") int permits,
+            @Value("${jdbc.limiter.acquire-timeout:PT10S}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof LimitingDataSource))
+                    return new LimitingDataSource(dataSource, permits, acquireTimeout);
+                return bean;
+            }
+        };
+    }
+
+    // jdbc.limiter.permits.available / jdbc.limiter.waiting next to the hikaricp.* pool gauges;
+    // waiting > 0 while available = 0 means requests are queueing on the limiter, not the pool
+    @Bean
+    public MeterBinder jdbcLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            LimitingDataSource limiter;
+            try {
+                limiter = dataSource.unwrap(LimitingDataSource.class);
+            } catch (SQLException e) {
+                throw new IllegalStateException("jdbc.limiter.enabled is set but the DataSource is not limited", e);
+            }
+            Gauge.builder("jdbc.limiter.permits.available", limiter, LimitingDataSource::availablePermits)
+                    .description("JDBC permits not currently held")
+                    .register(registry);
+            Gauge.builder("jdbc.limiter.waiting", limiter, LimitingDataSource::waiting)
+                    .description("Callers parked waiting for a JDBC permit")
+                    .register(registry);
+        };
+    }
+}
@@ -3,18 +3,22 @@ package com.vamint.controller;
 import com.vamint.dto.*;
 import com.vamint.service.AdminService;
 import com.vamint.service.AttendanceService;
+import com.vamint.service.AttendanceSummaryService;
+import com.vamint.service.ImageService;
+import com.vamint.service.ImageUploadQueue;
 import com.vamint.service.LectureService;
+import com.vamint.service.StudentImportService;
 import com.vamint.service.StudentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -25,9 +29,11 @@ public class AdminController {
     private final LectureService lectureService;
     private final AttendanceService attendanceService;
     private final StudentService studentService;
-    private final com.vamint.service.ImageService imageService;
+    private final ImageService imageService;
+    private final ImageUploadQueue imageUploadQueue;
     private final AdminService adminService;
-    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+    private final StudentImportService studentImportService;
+    private final AttendanceSummaryService attendanceSummaryService;
 
     @PostMapping("/lectures")
     public ResponseEntity<LectureResponse> createLecture(@Valid @RequestBody CreateLectureRequest request) {
@@ -36,8 +42,13 @@ public class AdminController {
     }
 
     @GetMapping("/lectures")
-    public ResponseEntity<List<LectureResponse>> getAllLectures() {
-        List<LectureResponse> lectures = lectureService.getAllLectures();
+    public ResponseEntity<LecturePageResponse> getAllLectures(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean includeDescription) {
+        LecturePageResponse lectures = lectureService.getLectures(from, to, after, limit, includeDescription);
         return ResponseEntity.ok(lectures);
     }
 
@@ -60,6 +71,13 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/lectures/{lectureId}/attendance/bulk")
+    public ResponseEntity<BulkAttendanceResponse> markLectureAttendance(@PathVariable Long lectureId,
+            @Valid @RequestBody BulkAttendanceRequest request) {
+        BulkAttendanceResponse response = attendanceService.markLectureAttendance(lectureId, request);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/lectures/{lectureId}/attendance")
     public ResponseEntity<List<AttendanceResponse>> getAttendanceForLecture(@PathVariable Long lectureId) {
         List<AttendanceResponse> attendance = attendanceService.getAttendanceForLecture(lectureId);
@@ -67,14 +85,12 @@ public class AdminController {
     }
 
     @GetMapping("/students")
-    public ResponseEntity<?> getAllStudents() {
-        try {
-            List<com.vamint.dto.StudentResponse> students = studentService.getAllStudentsDto();
-            return ResponseEntity.ok(students);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", e.getMessage()));
-        }
+    public ResponseEntity<StudentPageResponse> getAllStudents(@RequestParam(required = false) String after,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "100") int limit) {
+        StudentPageResponse students = studentService.getStudentsPage(after, q, sort, limit);
+        return ResponseEntity.ok(students);
     }
 
     @PostMapping("/students")
@@ -84,40 +100,46 @@ public class AdminController {
         return ResponseEntity.ok(studentService.toDto(student));
     }
 
+    // roster import: CSV with a name,email,rollNo,password header, or NDJSON (.ndjson/.jsonl or format=ndjson)
+    @PostMapping(value = "/students/import", consumes = { "multipart/form-data" })
+    public ResponseEntity<StudentImportResponse> importStudents(
+            @RequestPart("file") org.springframework.web.multipart.MultipartFile file,
+            @RequestParam(required = false) String format) throws IOException {
+        String filename = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase();
+        boolean ndjson = format != null ? "ndjson".equalsIgnoreCase(format)
+                : filename.endsWith(".ndjson") || filename.endsWith(".jsonl")
+                        || "application/x-ndjson".equals(file.getContentType());
+        try (java.io.InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(studentImportService.importRoster(in, ndjson));
+        }
+    }
+
     // multipart create: accepts optional image file under 'image'
     @PostMapping(value = "/students/upload", consumes = { "multipart/form-data" })
     public ResponseEntity<?> createStudentWithImage(
             @RequestPart(value = "data", required = false) @Valid CreateStudentRequest request,
             @RequestPart(value = "image", required = false) org.springframework.web.multipart.MultipartFile image,
             @RequestParam(required = false) Map<String, String> formFields) {
-        try {
-            String imageUrl = null;
-            if (image != null && !image.isEmpty()) {
-                try {
-                    imageUrl = imageService.uploadAndGetUrl(image, null);
-                } catch (Exception ex) {
-                    // Log and continue without image so insert still succeeds
-                    logger.error("Failed to upload student image, continuing without image", ex);
-                    imageUrl = null;
-                }
-            }
-            // Support both JSON-part and simple form-fields
-            if (request == null && formFields != null && !formFields.isEmpty()) {
-                CreateStudentRequest r = new CreateStudentRequest();
-                r.setName(formFields.get("name"));
-                r.setEmail(formFields.get("email"));
-                r.setRollNo(formFields.get("rollNo"));
-                r.setPassword(formFields.get("password"));
-                request = r;
-            }
-            if (request == null) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Missing student data"));
-            }
-            com.vamint.entity.Student student = studentService.createStudent(request, imageUrl);
-            return ResponseEntity.ok(studentService.toDto(student));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", e.getMessage()));
+        // reject bad files before anything is written
+        boolean hasImage = image != null && !image.isEmpty();
+        if (hasImage)
+            imageService.validate(image);
+        // Support both JSON-part and simple form-fields
+        if (request == null && formFields != null && !formFields.isEmpty()) {
+            CreateStudentRequest r = new CreateStudentRequest();
+            r.setName(formFields.get("name"));
+            r.setEmail(formFields.get("email"));
+            r.setRollNo(formFields.get("rollNo"));
+            r.setPassword(formFields.get("password"));
+            request = r;
+        }
+        if (request == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Missing student data"));
         }
+        com.vamint.entity.Student student = studentService.createStudent(request, null);
+        if (hasImage)
+            imageUploadQueue.enqueue(student, image);
+        return ResponseEntity.ok(studentService.toDto(student));
     }
 
     @GetMapping("/admins")
@@ -138,39 +160,47 @@ public class AdminController {
             @RequestPart(value = "data", required = false) @Valid CreateAdminRequest request,
             @RequestPart(value = "image", required = false) org.springframework.web.multipart.MultipartFile image,
             @RequestParam(required = false) Map<String, String> formFields) {
-        try {
-            String imageUrl = null;
-            if (image != null && !image.isEmpty()) {
-                try {
-                    imageUrl = imageService.uploadAndGetUrl(image, null);
-                } catch (Exception ex) {
-                    logger.error("Failed to upload admin image, continuing without image", ex);
-                    imageUrl = null;
-                }
-            }
-            if (request == null && formFields != null && !formFields.isEmpty()) {
-                CreateAdminRequest r = new CreateAdminRequest();
-                r.setName(formFields.get("name"));
-                r.setEmail(formFields.get("email"));
-                r.setPassword(formFields.get("password"));
-                request = r;
-            }
-            if (request == null) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Missing admin data"));
-            }
-            com.vamint.entity.Admin admin = adminService.createAdmin(request, imageUrl);
-            return ResponseEntity.ok(admin);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", e.getMessage()));
+        boolean hasImage = image != null && !image.isEmpty();
+        if (hasImage)
+            imageService.validate(image);
+        if (request == null && formFields != null && !formFields.isEmpty()) {
+            CreateAdminRequest r = new CreateAdminRequest();
+            r.setName(formFields.get("name"));
+            r.setEmail(formFields.get("email"));
+            r.setPassword(formFields.get("password"));
+            request = r;
+        }
+        if (request == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Missing admin data"));
         }
+        com.vamint.entity.Admin admin = adminService.createAdmin(request, null);
+        if (hasImage)
+            imageUploadQueue.enqueue(admin, image);
+        return ResponseEntity.ok(admin);
     }
 
     @GetMapping("/lectures/{lectureId}/attendance-stats")
-    public ResponseEntity<LectureAttendanceStatsResponse> getLectureAttendanceStats(@PathVariable Long lectureId) {
-        LectureAttendanceStatsResponse stats = attendanceService.getLectureAttendanceStats(lectureId);
+    public ResponseEntity<LectureAttendanceStatsResponse> getLectureAttendanceStats(@PathVariable Long lectureId,
+            @RequestParam(defaultValue = "false") boolean details,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int size) {
+        LectureAttendanceStatsResponse stats = attendanceService.getLectureAttendanceStats(lectureId, details, after,
+                size);
         return ResponseEntity.ok(stats);
     }
 
+    // Recount the summary tables against attendances without changing them
+    @GetMapping("/attendance-summary/verify")
+    public ResponseEntity<AttendanceSummaryCheckResponse> verifyAttendanceSummary() {
+        return ResponseEntity.ok(attendanceSummaryService.verify());
+    }
+
+    // Rebuild both summary tables from attendances; reports the mismatches found beforehand
+    @PostMapping("/attendance-summary/rebuild")
+    public ResponseEntity<AttendanceSummaryCheckResponse> rebuildAttendanceSummary() {
+        return ResponseEntity.ok(attendanceSummaryService.rebuild());
+    }
+
     // Student CRUD Operations
     @GetMapping("/students/{id}")
     public ResponseEntity<com.vamint.dto.StudentResponse> getStudent(@PathVariable Long id) {
@@ -192,32 +222,24 @@ public class AdminController {
             @RequestPart(value = "data", required = false) @Valid CreateStudentRequest request,
             @RequestPart(value = "image", required = false) org.springframework.web.multipart.MultipartFile image,
             @RequestParam(required = false) Map<String, String> formFields) {
-        try {
-            String imageUrl = null;
-            if (image != null && !image.isEmpty()) {
-                try {
-                    imageUrl = imageService.uploadAndGetUrl(image, null);
-                } catch (Exception ex) {
-                    logger.error("Failed to upload student image for update, continuing without image", ex);
-                    imageUrl = null;
-                }
-            }
-            if (request == null && formFields != null && !formFields.isEmpty()) {
-                CreateStudentRequest r = new CreateStudentRequest();
-                r.setName(formFields.get("name"));
-                r.setEmail(formFields.get("email"));
-                r.setRollNo(formFields.get("rollNo"));
-                r.setPassword(formFields.get("password"));
-                request = r;
-            }
-            if (request == null) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Missing student data"));
-            }
-            com.vamint.entity.Student student = studentService.updateStudent(id, request, imageUrl);
-            return ResponseEntity.ok(studentService.toDto(student));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", e.getMessage()));
+        boolean hasImage = image != null && !image.isEmpty();
+        if (hasImage)
+            imageService.validate(image);
+        if (request == null && formFields != null && !formFields.isEmpty()) {
+            CreateStudentRequest r = new CreateStudentRequest();
+            r.setName(formFields.get("name"));
+            r.setEmail(formFields.get("email"));
+            r.setRollNo(formFields.get("rollNo"));
+            r.setPassword(formFields.get("password"));
+            request = r;
         }
+        if (request == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Missing student data"));
+        }
+        com.vamint.entity.Student student = studentService.updateStudent(id, request, null);
+        if (hasImage)
+            imageUploadQueue.enqueue(student, image);
+        return ResponseEntity.ok(studentService.toDto(student));
     }
 
     @DeleteMapping("/students/{id}")
@@ -247,31 +269,23 @@ public class AdminController {
             @RequestPart(value = "data", required = false) @Valid CreateAdminRequest request,
             @RequestPart(value = "image", required = false) org.springframework.web.multipart.MultipartFile image,
             @RequestParam(required = false) Map<String, String> formFields) {
-        try {
-            String imageUrl = null;
-            if (image != null && !image.isEmpty()) {
-                try {
-                    imageUrl = imageService.uploadAndGetUrl(image, null);
-                } catch (Exception ex) {
-                    logger.error("Failed to upload admin image for update, continuing without image", ex);
-                    imageUrl = null;
-                }
-            }
-            if (request == null && formFields != null && !formFields.isEmpty()) {
-                CreateAdminRequest r = new CreateAdminRequest();
-                r.setName(formFields.get("name"));
-                r.setEmail(formFields.get("email"));
-                r.setPassword(formFields.get("password"));
-                request = r;
-            }
-            if (request == null) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Missing admin data"));
-            }
-            com.vamint.entity.Admin admin = adminService.updateAdmin(id, request, imageUrl);
-            return ResponseEntity.ok(admin);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", e.getMessage()));
+        boolean hasImage = image != null && !image.isEmpty();
+        if (hasImage)
+            imageService.validate(image);
+        if (request == null && formFields != null && !formFields.isEmpty()) {
+            CreateAdminRequest r = new CreateAdminRequest();
+            r.setName(formFields.get("name"));
+            r.setEmail(formFields.get("email"));
+            r.setPassword(formFields.get("password"));
+            request = r;
         }
+        if (request == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Missing admin data"));
+        }
+        com.vamint.entity.Admin admin = adminService.updateAdmin(id, request, null);
+        if (hasImage)
+            imageUploadQueue.enqueue(admin, image);
+        return ResponseEntity.ok(admin);
     }
 
     @DeleteMapping("/admins/{id}")
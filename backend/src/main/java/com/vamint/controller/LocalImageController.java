@@ -0,0 +1,67 @@
+package com.vamint.controller;
+
+import com.vamint.storage.LocalImageStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Serves LocalImageStore files. Names are content hashes, so the hash doubles as a strong ETag and
+// responses are cacheable for a year. Bodies go out through Tomcat sendfile when the connector
+// supports it (kernel-to-socket, no user-space copy), otherwise through FileChannel.transferTo.
+@RestController
+@ConditionalOnProperty(name = "image.store", havingValue = "local")
+@RequiredArgsConstructor
+public class LocalImageController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final LocalImageStore store;
+
+    @GetMapping("/images/{name}")
+    public void getImage(@PathVariable String name, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path file = store.resolve(name);
+        if (file == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+        String etag = "\"" + name.substring(0, name.lastIndexOf('.')) + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(etag))
+            return;
+
+        long length = Files.size(file);
+        response.setContentType(name.endsWith(".png") ? "image/png" : "image/jpeg");
+        response.setContentLengthLong(length);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length)
+                position += channel.transferTo(position, length - position, out);
+        }
+    }
+}
@@ -5,9 +5,12 @@ import com.vamint.dto.LectureResponse;
 import com.vamint.service.AttendanceService;
 import com.vamint.service.LectureService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/api/student")
 @CrossOrigin(origins = "http://localhost:5173")
@@ -18,8 +21,11 @@ public class StudentController {
     private final AttendanceService attendanceService;
 
     @GetMapping("/lectures/upcoming")
-    public ResponseEntity<java.util.List<LectureResponse>> getUpcomingLectures() {
-        java.util.List<LectureResponse> lectures = lectureService.getUpcomingLectures();
+    public ResponseEntity<java.util.List<LectureResponse>> getUpcomingLectures(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeDescription) {
+        java.util.List<LectureResponse> lectures = lectureService.getUpcomingLectures(to, limit, includeDescription);
         return ResponseEntity.ok(lectures);
     }
 
@@ -15,4 +15,10 @@ public class AttendanceStatsResponse {
         this.absentCount = absentCount;
         this.attendancePercentage = attendancePercentage;
     }
+
+    // From summary or cached counters: absent count and percentage are derived
+    public AttendanceStatsResponse(Long totalLectures, Long presentCount) {
+        this(totalLectures, presentCount, totalLectures - presentCount,
+                totalLectures > 0 ? (presentCount.doubleValue() / totalLectures.doubleValue()) * 100 : 0.0);
+    }
 }
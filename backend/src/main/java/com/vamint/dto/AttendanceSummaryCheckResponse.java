@@ -0,0 +1,14 @@
+package com.vamint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSummaryCheckResponse {
+    private long studentMismatches;
+    private long lectureMismatches;
+    private boolean rebuilt;
+}
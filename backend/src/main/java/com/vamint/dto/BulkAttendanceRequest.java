@@ -0,0 +1,14 @@
+package com.vamint.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class BulkAttendanceRequest {
+
+    // studentId -> present
+    @NotEmpty(message = "Attendance map is required")
+    private Map<Long, Boolean> attendance;
+}
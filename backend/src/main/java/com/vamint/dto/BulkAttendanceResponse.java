@@ -0,0 +1,17 @@
+package com.vamint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAttendanceResponse {
+    private Long lectureId;
+    private int marked;
+    private int failed;
+    private List<BulkAttendanceResult> results;
+}
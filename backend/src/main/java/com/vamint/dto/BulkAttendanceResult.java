@@ -0,0 +1,15 @@
+package com.vamint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAttendanceResult {
+    private Long studentId;
+    private String status; // CREATED, UPDATED, UNCHANGED, STUDENT_NOT_FOUND, INVALID
+    private Long attendanceId;
+    private Boolean present;
+}
@@ -1,5 +1,6 @@
 package com.vamint.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 import java.util.List;
@@ -13,7 +14,12 @@ public class LectureAttendanceStatsResponse {
     private Long presentCount;
     private Long absentCount;
     private Double attendancePercentage;
+    // only present when requested with ?details=true
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<AttendanceResponse> attendanceDetails;
+    // roll number to pass as ?after= for the next details page
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
     
     public LectureAttendanceStatsResponse(Long lectureId, String lectureTitle, String lectureDate, 
                                         Long totalStudents, Long presentCount, Long absentCount, 
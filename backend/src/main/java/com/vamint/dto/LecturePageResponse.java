@@ -0,0 +1,16 @@
+package com.vamint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LecturePageResponse {
+    private List<LectureResponse> items;
+    // "<dateTime>_<id>" of the last item; pass back as ?after= for the next page, null on the last page
+    private String nextCursor;
+}
@@ -17,4 +17,9 @@ public class LectureResponse {
         this.description = description;
         this.dateTime = dateTime;
     }
+
+    // Slim listing projection; description is filled in separately when asked for
+    public LectureResponse(Long id, String title, LocalDateTime dateTime) {
+        this(id, title, null, dateTime);
+    }
 }
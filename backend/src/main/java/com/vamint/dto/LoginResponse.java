@@ -161,4 +161,11 @@ LoginResponse {
     private Long userId;
     private String name;
     private String email;
+    // signed session token to send back as "Authorization: Bearer <token>"
+    private String token;
+    private Long expiresAt; // epoch seconds
+
+    public LoginResponse(boolean success, String message, String userType, Long userId, String name, String email) {
+        this(success, message, userType, userId, name, email, null, null);
+    }
 }
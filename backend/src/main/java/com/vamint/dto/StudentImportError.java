@@ -0,0 +1,14 @@
+package com.vamint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentImportError {
+    private long line; // 1-based line in the uploaded file
+    private String email;
+    private String message;
+}
@@ -0,0 +1,16 @@
+package com.vamint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentImportResponse {
+    private int imported;
+    private int failed;
+    private List<StudentImportError> errors; // capped; failed is the full count
+}
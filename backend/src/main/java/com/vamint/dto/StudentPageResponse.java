@@ -0,0 +1,16 @@
+package com.vamint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentPageResponse {
+    private List<StudentResponse> items;
+    // pass back as ?after= to fetch the next page; null on the last page
+    private String nextCursor;
+}
@@ -1,5 +1,6 @@
 package com.vamint.dto;
 
+import com.vamint.entity.ImageStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,4 +14,6 @@ public class StudentResponse {
     private String email;
     private String rollNo;
     private String imageUrl;
+    private String thumbnailUrl;
+    private ImageStatus imageStatus;
 }
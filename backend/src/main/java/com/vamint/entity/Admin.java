@@ -14,7 +14,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 public class Admin {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "admins_seq")
+    @SequenceGenerator(name = "admins_seq", sequenceName = "admins_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -29,4 +30,13 @@ public class Admin {
 
     @Column(name = "image_url")
     private String imageUrl;
+
+    // small rendition for lists; null until a processed upload lands
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+
+    // null when no image was ever uploaded
+    @Enumerated(EnumType.STRING)
+    @Column(name = "image_status", length = 16)
+    private ImageStatus imageStatus;
 }
@@ -6,14 +6,19 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "attendances")
+@Table(name = "attendances", uniqueConstraints = @UniqueConstraint(name = "uk_attendance_student_lecture", columnNames = {
+        "student_id", "lecture_id" }), indexes = {
+        @Index(name = "idx_attendance_student_present", columnList = "student_id, present"),
+        @Index(name = "idx_attendance_lecture_student", columnList = "lecture_id, student_id") })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Attendance {
 
+    // rows are written by native upserts that draw nextval per row, so no pooled block here
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attendances_seq")
+    @SequenceGenerator(name = "attendances_seq", sequenceName = "attendances_seq", allocationSize = 1)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,25 @@
+package com.vamint.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row per distinct uploaded image (SHA-256 of the original bytes), so re-uploads reuse the stored renditions
+@Entity
+@Table(name = "image_assets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageAsset {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "image_url", nullable = false)
+    private String imageUrl;
+
+    @Column(name = "thumbnail_url", nullable = false)
+    private String thumbnailUrl;
+}
@@ -0,0 +1,8 @@
+package com.vamint.entity;
+
+// Lifecycle of an uploaded profile image; imageUrl holds the placeholder until READY
+public enum ImageStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -18,7 +18,8 @@ import java.util.List;
 public class Lecture {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lectures_seq")
+    @SequenceGenerator(name = "lectures_seq", sequenceName = "lectures_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,25 @@
+package com.vamint.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Denormalized present/total per lecture, maintained with every attendance write
+@Entity
+@Table(name = "lecture_attendance_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LectureAttendanceSummary {
+
+    @Id
+    @Column(name = "lecture_id")
+    private Long lectureId;
+
+    @Column(name = "present_count", nullable = false)
+    private Long presentCount;
+
+    @Column(name = "total_count", nullable = false)
+    private Long totalCount;
+}
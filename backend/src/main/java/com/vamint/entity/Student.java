@@ -17,8 +17,10 @@ import java.util.List;
 @JsonIgnoreProperties({ "attendances" })
 public class Student {
 
+    // pooled sequence: Hibernate reserves 50 ids per round trip, which lets inserts batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_seq")
+    @SequenceGenerator(name = "students_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -37,6 +39,15 @@ public class Student {
     @Column(name = "image_url")
     private String imageUrl;
 
+    // small rendition for lists; null until a processed upload lands
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+
+    // null when no image was ever uploaded
+    @Enumerated(EnumType.STRING)
+    @Column(name = "image_status", length = 16)
+    private ImageStatus imageStatus;
+
     @OneToMany(mappedBy = "student", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Attendance> attendances;
 }
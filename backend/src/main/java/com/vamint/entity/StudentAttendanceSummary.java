@@ -0,0 +1,25 @@
+package com.vamint.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Denormalized present/total per student, maintained with every attendance write
+@Entity
+@Table(name = "student_attendance_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentAttendanceSummary {
+
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "present_count", nullable = false)
+    private Long presentCount;
+
+    @Column(name = "total_count", nullable = false)
+    private Long totalCount;
+}
@@ -0,0 +1,10 @@
+package com.vamint.exception;
+
+// Thrown for client input our own code rejects (malformed cursors, invalid uploads) and mapped to
+// 400 with its message. Library IllegalArgumentExceptions are not, so their text never reaches clients.
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,9 @@
+package com.vamint.exception;
+
+// Thrown when a write collides with existing data (duplicate email or roll number) and mapped to 409.
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,10 @@
+package com.vamint.exception;
+
+// Thrown for a missing entity and mapped to 404. Misses are routine (stale ids, typos), so the
+// exception skips stack-trace capture and suppression bookkeeping.
+public class NotFoundException extends RuntimeException {
+
+    public NotFoundException(String message) {
+        super(message, null, false, false);
+    }
+}
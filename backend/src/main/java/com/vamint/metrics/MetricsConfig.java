@@ -0,0 +1,79 @@
+package com.vamint.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Set;
+
+// Client-side percentiles and SLO buckets for the paths we hold latency targets on: login, marking
+// attendance and the dashboard reads. Other timers only get the histograms set in application.properties.
+@Configuration
+public class MetricsConfig {
+
+    private static final Set<String> SLO_SERVICE_METHODS = Set.of(
+            "AuthService.authenticate",
+            "AttendanceService.markAttendance",
+            "AttendanceService.markLectureAttendance",
+            "AttendanceService.getStudentAttendanceStats",
+            "AttendanceService.getLectureAttendanceStats",
+            "StudentService.getStudentsPage",
+            "LectureService.getLectures",
+            "LectureService.getUpcomingLectures");
+
+    private static final Set<String> SLO_URIS = Set.of(
+            "/api/auth/login",
+            "/api/admin/attendance",
+            "/api/admin/lectures/{lectureId}/attendance/bulk",
+            "/api/admin/students",
+            "/api/admin/lectures",
+            "/api/admin/lectures/{lectureId}/attendance-stats",
+            "/api/student/lectures/upcoming",
+            "/api/student/{studentId}/attendance-stats");
+
+    private static final DistributionStatisticConfig SLO = DistributionStatisticConfig.builder()
+            .percentiles(0.5, 0.95, 0.99)
+            .percentilesHistogram(true)
+            .serviceLevelObjectives(millis(50), millis(100), millis(250), millis(500), millis(1000))
+            .build();
+
+    // every DataSource is wrapped so QueryStats sees each statement, Hibernate or JdbcTemplate
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource))
+                    return new QueryCountingDataSource(dataSource);
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterFilter sloMeterFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return isSloTimer(id) ? SLO.merge(config) : config;
+            }
+        };
+    }
+
+    private static boolean isSloTimer(Meter.Id id) {
+        if (ServiceMetricsAspect.METRIC.equals(id.getName()))
+            return SLO_SERVICE_METHODS.contains(id.getTag("class") + "." + id.getTag("method"));
+        if ("http.server.requests".equals(id.getName()))
+            return SLO_URIS.contains(id.getTag("uri"));
+        return false;
+    }
+
+    private static double millis(long ms) {
+        return Duration.ofMillis(ms).toNanos();
+    }
+}
@@ -0,0 +1,95 @@
+package com.vamint.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Opens a QueryStats scope per request and, once the handler is done, records
+// vamint.http.queries / vamint.http.db.time per endpoint and warns when an endpoint runs more
+// statements than its budget. A count that grows with the result size is the N+1 signature.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets = new HashMap<>();
+
+    // endpoints: comma-separated uriPattern:budget pairs, patterns as in @RequestMapping
+    public QueryCountFilter(MeterRegistry meterRegistry,
+            @Value("${query-budget.default:10}") int defaultBudget,
+            @Value("${query-budget.endpoints:}") String endpoints) {
+        this.meterRegistry = meterRegistry;
+        this.defaultBudget = defaultBudget;
+        for (String entry : endpoints.split(",")) {
+            if (entry.isBlank())
+                continue;
+            int sep = entry.lastIndexOf(':');
+            if (sep <= 0)
+                throw new IllegalStateException("query-budget.endpoints entries must be uriPattern:budget");
+            budgets.put(entry.substring(0, sep).trim(), Integer.parseInt(entry.substring(sep + 1).trim()));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryStats.end();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null)
+            return; // not routed to a controller (static files, 404s, rejected by the token filter)
+        String uri = pattern.toString();
+        String method = request.getMethod();
+
+        DistributionSummary.builder("vamint.http.queries")
+                .description("SQL statements executed per request")
+                .tag("method", method).tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getCount());
+        Timer.builder("vamint.http.db.time")
+                .description("Time spent in JDBC statements per request")
+                .tag("method", method).tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        int budget = budgets.getOrDefault(uri, defaultBudget);
+        if (stats.getCount() > budget) {
+            Counter.builder("vamint.http.queries.over.budget")
+                    .description("Requests that exceeded their query budget")
+                    .tag("method", method).tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("{} {} ran {} queries (budget {}), {} ms in the database", method, uri, stats.getCount(),
+                    budget, String.format("%.1f", stats.getMillis()));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.vamint.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+// Adds X-Query-Count and Server-Timing (db;dur=...) just before the body is written, which is the
+// last point headers can still be set; the filter sees the final count only after the response
+// has been committed.
+@RestControllerAdvice
+public class QueryCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    private final boolean enabled;
+
+    public QueryCountHeaderAdvice(@Value("${query-budget.headers:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        QueryStats stats = QueryStats.current();
+        if (stats != null) {
+            response.getHeaders().set("X-Query-Count", String.valueOf(stats.getCount()));
+            response.getHeaders().add("Server-Timing", String.format(Locale.ROOT,
+                    "db;dur=%.1f;desc=\"%d queries\"", stats.getMillis(), stats.getCount()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,74 @@
+package com.vamint.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Counts and times statement executions into QueryStats. Sits at the JDBC level rather than in a
+// Hibernate StatementInspector so the JdbcTemplate batch paths are counted too, and so the time
+// measured is the real round trip. A batch (executeBatch) counts as one statement.
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    public QueryCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType()))
+                        return counting(statement, method.getReturnType());
+                    return result;
+                });
+    }
+
+    // proxies the statement as the interface the factory method declared (Statement, PreparedStatement, CallableStatement)
+    private static Object counting(Statement statement, Class<?> type) {
+        return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("execute") || QueryStats.current() == null)
+                        return invoke(statement, method, args);
+                    if (QueryStats.isCapturing())
+                        QueryStats.capture(rendered(statement, args));
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        QueryStats.record(System.nanoTime() - start);
+                    }
+                });
+    }
+
+    // Statement.execute(sql) carries the SQL; a prepared statement is unwrapped past the pool's proxy
+    // to the driver's own, whose toString() (pgjdbc) inlines the bound parameters
+    private static String rendered(Statement statement, Object[] args) throws SQLException {
+        if (args != null && args.length > 0 && args[0] instanceof String sql)
+            return sql;
+        return statement.unwrap(Statement.class).toString();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
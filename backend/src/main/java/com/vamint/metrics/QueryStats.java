@@ -0,0 +1,83 @@
+package com.vamint.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL statements executed and time spent in JDBC for the current request. QueryCountFilter opens
+ * a scope per request; QueryCountingDataSource adds to it. Statements on threads without a scope
+ * (startup, background workers) are not counted. Tests can read {@link #current()} inside a request
+ * or assert the X-Query-Count header, and {@link #beginCapturing()} also keeps the executed SQL.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private int count;
+    private long nanos;
+    private List<String> statements;
+
+    private QueryStats() {
+    }
+
+    public static QueryStats begin() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Like {@link #begin()}, but also keeps each executed statement as the driver renders it, with
+     * its bound parameters inlined. Meant for tests that EXPLAIN the SQL Hibernate really emits.
+     */
+    public static QueryStats beginCapturing() {
+        QueryStats stats = begin();
+        stats.statements = new ArrayList<>();
+        return stats;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /** The active scope, or null outside a request. */
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    static void record(long elapsedNanos) {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.count++;
+            stats.nanos += elapsedNanos;
+        }
+    }
+
+    static boolean isCapturing() {
+        QueryStats stats = CURRENT.get();
+        return stats != null && stats.statements != null;
+    }
+
+    static void capture(String sql) {
+        QueryStats stats = CURRENT.get();
+        if (stats != null && stats.statements != null)
+            stats.statements.add(sql);
+    }
+
+    /** Captured statements in execution order; empty unless the scope was opened by beginCapturing. */
+    public List<String> getStatements() {
+        return statements == null ? List.of() : List.copyOf(statements);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getMillis() {
+        return nanos / 1_000_000.0;
+    }
+}
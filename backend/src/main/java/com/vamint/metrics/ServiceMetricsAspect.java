@@ -0,0 +1,45 @@
+package com.vamint.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+// Times every public method on the com.vamint.service beans as vamint.service{class, method,
+// outcome, exception}. Repository calls are timed by Spring Boot itself as
+// spring.data.repository.invocations{repository, method, state}, so together they show where a
+// request's time goes. Calls a service makes to its own methods bypass the proxy and are not timed.
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String METRIC = "vamint.service";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.vamint.service..*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "SUCCESS";
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            outcome = "ERROR";
+            exception = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .description("Service method latency")
+                    .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.vamint.repository;
 
 import com.vamint.entity.Admin;
+import com.vamint.entity.ImageStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +17,23 @@ public interface AdminRepository extends JpaRepository<Admin, Long> {
     Optional<Admin> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT x.email FROM Admin x")
+    List<String> findAllEmails();
+
+    @Modifying
+    @Query("UPDATE Admin x SET x.password = :password WHERE x.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Admin x SET x.imageStatus = :status WHERE x.id = :id")
+    int updateImageStatus(@Param("id") Long id, @Param("status") ImageStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Admin x SET x.imageUrl = :imageUrl, x.thumbnailUrl = :thumbnailUrl, x.imageStatus = :status"
+            + " WHERE x.id = :id")
+    int updateImage(@Param("id") Long id, @Param("imageUrl") String imageUrl,
+            @Param("thumbnailUrl") String thumbnailUrl, @Param("status") ImageStatus status);
 }
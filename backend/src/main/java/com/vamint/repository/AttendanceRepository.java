@@ -1,31 +1,54 @@
 package com.vamint.repository;
 
+import com.vamint.dto.AttendanceResponse;
 import com.vamint.entity.Attendance;
-import com.vamint.entity.Lecture;
-import com.vamint.entity.Student;
+import com.vamint.repository.projection.AttendanceMark;
+import com.vamint.repository.projection.AttendanceRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
-
-    List<Attendance> findByLecture(Lecture lecture);
-
-    List<Attendance> findByStudent(Student student);
-
-    Optional<Attendance> findByStudentAndLecture(Student student, Lecture lecture);
-
-    @Query("SELECT COUNT(a) FROM Attendance a WHERE a.student = :student AND a.present = true")
-    Long countPresentByStudent(@Param("student") Student student);
-
-    @Query("SELECT COUNT(a) FROM Attendance a WHERE a.student = :student AND a.present = false")
-    Long countAbsentByStudent(@Param("student") Student student);
-
-    @Query("SELECT COUNT(a) FROM Attendance a WHERE a.student = :student")
-    Long countTotalByStudent(@Param("student") Student student);
+public interface AttendanceRepository extends JpaRepository<Attendance, Long>, AttendanceRepositoryCustom {
+
+    // Fetch-joined projection: one statement per lecture instead of a lazy load per row
+    @Query("SELECT new com.vamint.dto.AttendanceResponse(a.id, s.name, s.rollNo, l.title, a.present) "
+            + "FROM Attendance a JOIN a.student s JOIN a.lecture l WHERE l.id = :lectureId ORDER BY s.rollNo")
+    List<AttendanceResponse> findResponsesByLectureId(@Param("lectureId") Long lectureId);
+
+    // Keyset page of the same projection, ordered by roll number
+    @Query("SELECT new com.vamint.dto.AttendanceResponse(a.id, s.name, s.rollNo, l.title, a.present) "
+            + "FROM Attendance a JOIN a.student s JOIN a.lecture l WHERE l.id = :lectureId "
+            + "AND (:afterRollNo IS NULL OR s.rollNo > :afterRollNo) ORDER BY s.rollNo")
+    List<AttendanceResponse> findResponsesByLectureId(@Param("lectureId") Long lectureId,
+            @Param("afterRollNo") String afterRollNo, Pageable pageable);
+
+    @Query("SELECT a.id AS id, a.student.id AS studentId, a.present AS present FROM Attendance a "
+            + "WHERE a.lecture.id = :lectureId AND a.student.id IN :studentIds")
+    List<AttendanceMark> findMarks(@Param("lectureId") Long lectureId,
+            @Param("studentIds") Collection<Long> studentIds);
+
+    // Single round trip: upsert on (student_id, lecture_id) and return the response row.
+    // The locked read of the previous value lets callers apply exact deltas to summaries and caches.
+    @Transactional
+    @Query(value = "WITH previous AS ("
+            + " SELECT present FROM attendances WHERE student_id = :studentId AND lecture_id = :lectureId FOR UPDATE),"
+            + " upserted AS ("
+            + " INSERT INTO attendances (id, student_id, lecture_id, present)"
+            + " VALUES (nextval('attendances_seq'), :studentId, :lectureId, :present)"
+            + " ON CONFLICT (student_id, lecture_id) DO UPDATE SET present = EXCLUDED.present"
+            + " RETURNING id, student_id, lecture_id, present, (xmax = 0) AS inserted)"
+            + " SELECT u.id AS \"id\", s.name AS \"studentName\", s.roll_no AS \"studentRollNo\","
+            + " l.title AS \"lectureTitle\", u.present AS \"present\", u.inserted AS \"inserted\","
+            + " (SELECT p.present FROM previous p) AS \"previousPresent\""
+            + " FROM upserted u JOIN students s ON s.id = u.student_id JOIN lectures l ON l.id = u.lecture_id",
+            nativeQuery = true)
+    AttendanceRow upsert(@Param("studentId") Long studentId, @Param("lectureId") Long lectureId,
+            @Param("present") Boolean present);
 }
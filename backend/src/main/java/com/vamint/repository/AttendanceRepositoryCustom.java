@@ -0,0 +1,9 @@
+package com.vamint.repository;
+
+import java.util.Map;
+
+public interface AttendanceRepositoryCustom {
+
+    // studentId -> present, written as JDBC batches of INSERT ... ON CONFLICT DO UPDATE
+    int[] upsertAll(Long lectureId, Map<Long, Boolean> marks);
+}
@@ -0,0 +1,32 @@
+package com.vamint.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class AttendanceRepositoryImpl implements AttendanceRepositoryCustom {
+
+    private static final String UPSERT_SQL = "INSERT INTO attendances (id, student_id, lecture_id, present) "
+            + "VALUES (nextval('attendances_seq'), ?, ?, ?) "
+            + "ON CONFLICT (student_id, lecture_id) DO UPDATE SET present = EXCLUDED.present";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public int[] upsertAll(Long lectureId, Map<Long, Boolean> marks) {
+        if (marks.isEmpty())
+            return new int[0];
+        List<Object[]> args = new ArrayList<>(marks.size());
+        // sorted by student id so concurrent roll-calls lock rows in the same order
+        marks.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> args.add(new Object[] { e.getKey(), lectureId, e.getValue() }));
+        return jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+    }
+}
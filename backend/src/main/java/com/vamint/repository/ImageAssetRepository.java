@@ -0,0 +1,22 @@
+package com.vamint.repository;
+
+import com.vamint.entity.ImageAsset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ImageAssetRepository extends JpaRepository<ImageAsset, String> {
+
+    // Two workers racing on the same image both upload; the first row wins and the other is a no-op
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO image_assets (content_hash, image_url, thumbnail_url)"
+            + " VALUES (:contentHash, :imageUrl, :thumbnailUrl) ON CONFLICT (content_hash) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("contentHash") String contentHash, @Param("imageUrl") String imageUrl,
+            @Param("thumbnailUrl") String thumbnailUrl);
+}
@@ -0,0 +1,52 @@
+package com.vamint.repository;
+
+import com.vamint.entity.LectureAttendanceSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface LectureAttendanceSummaryRepository extends JpaRepository<LectureAttendanceSummary, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO lecture_attendance_summary (lecture_id, present_count, total_count)"
+            + " VALUES (:lectureId, :presentDelta, :totalDelta) ON CONFLICT (lecture_id) DO UPDATE SET"
+            + " present_count = lecture_attendance_summary.present_count + EXCLUDED.present_count,"
+            + " total_count = lecture_attendance_summary.total_count + EXCLUDED.total_count", nativeQuery = true)
+    int applyDelta(@Param("lectureId") Long lectureId, @Param("presentDelta") long presentDelta,
+            @Param("totalDelta") long totalDelta);
+
+    // Recounts the given lectures from the base table
+    @Modifying
+    @Query(value = "INSERT INTO lecture_attendance_summary (lecture_id, present_count, total_count)"
+            + " SELECT lecture_id, COUNT(*) FILTER (WHERE present), COUNT(*) FROM attendances"
+            + " WHERE lecture_id IN (:lectureIds) GROUP BY lecture_id"
+            + " ON CONFLICT (lecture_id) DO UPDATE SET present_count = EXCLUDED.present_count,"
+            + " total_count = EXCLUDED.total_count", nativeQuery = true)
+    int refresh(@Param("lectureIds") Collection<Long> lectureIds);
+
+    // Takes a student's rows out of the per-lecture counts before the student is deleted
+    @Modifying
+    @Query(value = "UPDATE lecture_attendance_summary l SET present_count = l.present_count - x.present,"
+            + " total_count = l.total_count - x.total FROM (SELECT lecture_id, COUNT(*) FILTER (WHERE present) AS present,"
+            + " COUNT(*) AS total FROM attendances WHERE student_id = :studentId GROUP BY lecture_id) x"
+            + " WHERE l.lecture_id = x.lecture_id", nativeQuery = true)
+    int subtractStudent(@Param("studentId") Long studentId);
+
+    @Modifying
+    @Query(value = "INSERT INTO lecture_attendance_summary (lecture_id, present_count, total_count)"
+            + " SELECT lecture_id, COUNT(*) FILTER (WHERE present), COUNT(*) FROM attendances GROUP BY lecture_id",
+            nativeQuery = true)
+    int insertFromAttendances();
+
+    @Query(value = "SELECT COUNT(*) FROM (SELECT lecture_id, COUNT(*) FILTER (WHERE present) AS present,"
+            + " COUNT(*) AS total FROM attendances GROUP BY lecture_id) a"
+            + " FULL JOIN lecture_attendance_summary s ON s.lecture_id = a.lecture_id"
+            + " WHERE COALESCE(a.present, 0) <> COALESCE(s.present_count, 0)"
+            + " OR COALESCE(a.total, 0) <> COALESCE(s.total_count, 0)", nativeQuery = true)
+    long countMismatches();
+}
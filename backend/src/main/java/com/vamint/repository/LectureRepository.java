@@ -1,19 +1,36 @@
 package com.vamint.repository;
 
+import com.vamint.dto.LectureResponse;
 import com.vamint.entity.Lecture;
+import com.vamint.repository.projection.LectureDescription;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface LectureRepository extends JpaRepository<Lecture, Long> {
     
-    @Query("SELECT l FROM Lecture l WHERE l.dateTime >= :currentDateTime ORDER BY l.dateTime ASC")
-    List<Lecture> findUpcomingLectures(LocalDateTime currentDateTime);
+    // Slim projections (no TEXT description) walking idx_lectures_date_time (date_time, id)
+    @Query("SELECT new com.vamint.dto.LectureResponse(l.id, l.title, l.dateTime) FROM Lecture l "
+            + "WHERE l.dateTime >= :from AND (:to IS NULL OR l.dateTime < :to) ORDER BY l.dateTime ASC, l.id ASC")
+    List<LectureResponse> findUpcomingLectures(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            Pageable pageable);
     
-    @Query("SELECT l FROM Lecture l ORDER BY l.dateTime DESC")
-    List<Lecture> findAllOrderByDateTimeDesc();
+    @Query("SELECT new com.vamint.dto.LectureResponse(l.id, l.title, l.dateTime) FROM Lecture l "
+            + "WHERE (:from IS NULL OR l.dateTime >= :from) AND (:to IS NULL OR l.dateTime < :to) "
+            + "AND (:afterDateTime IS NULL OR l.dateTime < :afterDateTime "
+            + "OR (l.dateTime = :afterDateTime AND l.id < :afterId)) "
+            + "ORDER BY l.dateTime DESC, l.id DESC")
+    List<LectureResponse> findWindowOrderByDateTimeDesc(@Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, @Param("afterDateTime") LocalDateTime afterDateTime,
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT l.id AS id, l.description AS description FROM Lecture l WHERE l.id IN :ids")
+    List<LectureDescription> findDescriptions(@Param("ids") Collection<Long> ids);
 }
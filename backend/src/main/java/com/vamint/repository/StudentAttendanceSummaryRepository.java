@@ -0,0 +1,52 @@
+package com.vamint.repository;
+
+import com.vamint.entity.StudentAttendanceSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface StudentAttendanceSummaryRepository extends JpaRepository<StudentAttendanceSummary, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO student_attendance_summary (student_id, present_count, total_count)"
+            + " VALUES (:studentId, :presentDelta, :totalDelta) ON CONFLICT (student_id) DO UPDATE SET"
+            + " present_count = student_attendance_summary.present_count + EXCLUDED.present_count,"
+            + " total_count = student_attendance_summary.total_count + EXCLUDED.total_count", nativeQuery = true)
+    int applyDelta(@Param("studentId") Long studentId, @Param("presentDelta") long presentDelta,
+            @Param("totalDelta") long totalDelta);
+
+    // Recounts the given students from the base table
+    @Modifying
+    @Query(value = "INSERT INTO student_attendance_summary (student_id, present_count, total_count)"
+            + " SELECT student_id, COUNT(*) FILTER (WHERE present), COUNT(*) FROM attendances"
+            + " WHERE student_id IN (:studentIds) GROUP BY student_id"
+            + " ON CONFLICT (student_id) DO UPDATE SET present_count = EXCLUDED.present_count,"
+            + " total_count = EXCLUDED.total_count", nativeQuery = true)
+    int refresh(@Param("studentIds") Collection<Long> studentIds);
+
+    // Takes a lecture's rows out of the per-student counts before the lecture is deleted
+    @Modifying
+    @Query(value = "UPDATE student_attendance_summary s SET present_count = s.present_count - x.present,"
+            + " total_count = s.total_count - x.total FROM (SELECT student_id, COUNT(*) FILTER (WHERE present) AS present,"
+            + " COUNT(*) AS total FROM attendances WHERE lecture_id = :lectureId GROUP BY student_id) x"
+            + " WHERE s.student_id = x.student_id", nativeQuery = true)
+    int subtractLecture(@Param("lectureId") Long lectureId);
+
+    @Modifying
+    @Query(value = "INSERT INTO student_attendance_summary (student_id, present_count, total_count)"
+            + " SELECT student_id, COUNT(*) FILTER (WHERE present), COUNT(*) FROM attendances GROUP BY student_id",
+            nativeQuery = true)
+    int insertFromAttendances();
+
+    @Query(value = "SELECT COUNT(*) FROM (SELECT student_id, COUNT(*) FILTER (WHERE present) AS present,"
+            + " COUNT(*) AS total FROM attendances GROUP BY student_id) a"
+            + " FULL JOIN student_attendance_summary s ON s.student_id = a.student_id"
+            + " WHERE COALESCE(a.present, 0) <> COALESCE(s.present_count, 0)"
+            + " OR COALESCE(a.total, 0) <> COALESCE(s.total_count, 0)", nativeQuery = true)
+    long countMismatches();
+}
@@ -1,9 +1,18 @@
 package com.vamint.repository;
 
+import com.vamint.dto.StudentResponse;
 import com.vamint.entity.Student;
+import com.vamint.entity.ImageStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +21,43 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     Optional<Student> findByRollNo(String rollNo);
     boolean existsByEmail(String email);
     boolean existsByRollNo(String rollNo);
+
+    @Query("SELECT s.id FROM Student s WHERE s.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset pages over the slim StudentResponse columns; :q is a lower-cased prefix pattern or null
+    @Query("SELECT new com.vamint.dto.StudentResponse(s.id, s.name, s.email, s.rollNo, s.imageUrl, "
+            + "s.thumbnailUrl, s.imageStatus) FROM Student s "
+            + "WHERE (:afterId IS NULL OR s.id > :afterId) AND (:q IS NULL OR lower(s.name) LIKE :q "
+            + "OR lower(s.email) LIKE :q OR lower(s.rollNo) LIKE :q) ORDER BY s.id")
+    List<StudentResponse> findPageById(@Param("afterId") Long afterId, @Param("q") String q, Pageable pageable);
+
+    @Query("SELECT new com.vamint.dto.StudentResponse(s.id, s.name, s.email, s.rollNo, s.imageUrl, "
+            + "s.thumbnailUrl, s.imageStatus) FROM Student s "
+            + "WHERE (:afterRollNo IS NULL OR s.rollNo > :afterRollNo) AND (:q IS NULL OR lower(s.name) LIKE :q "
+            + "OR lower(s.email) LIKE :q OR lower(s.rollNo) LIKE :q) ORDER BY s.rollNo")
+    List<StudentResponse> findPageByRollNo(@Param("afterRollNo") String afterRollNo, @Param("q") String q,
+            Pageable pageable);
+
+    @Query("SELECT x.email FROM Student x")
+    List<String> findAllEmails();
+
+    @Query("SELECT x.rollNo FROM Student x")
+    List<String> findAllRollNos();
+
+    @Modifying
+    @Query("UPDATE Student x SET x.password = :password WHERE x.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Student x SET x.imageStatus = :status WHERE x.id = :id")
+    int updateImageStatus(@Param("id") Long id, @Param("status") ImageStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Student x SET x.imageUrl = :imageUrl, x.thumbnailUrl = :thumbnailUrl, x.imageStatus = :status"
+            + " WHERE x.id = :id")
+    int updateImage(@Param("id") Long id, @Param("imageUrl") String imageUrl,
+            @Param("thumbnailUrl") String thumbnailUrl, @Param("status") ImageStatus status);
 }
@@ -0,0 +1,9 @@
+package com.vamint.repository.projection;
+
+public interface AttendanceMark {
+    Long getId();
+
+    Long getStudentId();
+
+    Boolean getPresent();
+}
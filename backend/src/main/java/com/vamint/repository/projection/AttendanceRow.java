@@ -0,0 +1,19 @@
+package com.vamint.repository.projection;
+
+public interface AttendanceRow {
+    Long getId();
+
+    String getStudentName();
+
+    String getStudentRollNo();
+
+    String getLectureTitle();
+
+    Boolean getPresent();
+
+    // true when the upsert inserted a new row
+    Boolean getInserted();
+
+    // value replaced by the upsert, null when there was no row before
+    Boolean getPreviousPresent();
+}
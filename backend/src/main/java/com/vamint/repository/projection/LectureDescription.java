@@ -0,0 +1,7 @@
+package com.vamint.repository.projection;
+
+public interface LectureDescription {
+    Long getId();
+
+    String getDescription();
+}
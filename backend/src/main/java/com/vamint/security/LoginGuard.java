@@ -0,0 +1,143 @@
+package com.vamint.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vamint.repository.AdminRepository;
+import com.vamint.repository.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Front door for POST /api/auth/login:
+// - in-memory sets of every admin/student email, so unknown emails are rejected without a query.
+//   Loaded at startup, kept current by the services' create/update/delete/import paths, and
+//   reloaded on a fixed interval to pick up accounts created through other backend nodes;
+// - per-email and per-client-IP token buckets that absorb retry storms and credential stuffing.
+@Component
+public class LoginGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginGuard.class);
+
+    private final AdminRepository adminRepository;
+    private final StudentRepository studentRepository;
+    private volatile Set<String> adminEmails = ConcurrentHashMap.newKeySet();
+    private volatile Set<String> studentEmails = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    private final Cache<String, TokenBucket> emailBuckets;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final double emailCapacity;
+    private final double emailRefillPerSecond;
+    private final double ipCapacity;
+    private final double ipRefillPerSecond;
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "login-guard-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter unknownEmailCounter;
+    private final Counter rateLimitedCounter;
+
+    public LoginGuard(AdminRepository adminRepository, StudentRepository studentRepository,
+            MeterRegistry meterRegistry,
+            @Value("${auth.login-guard.email.capacity:5}") double emailCapacity,
+            @Value("${auth.login-guard.email.refill-per-minute:5}") double emailRefillPerMinute,
+            @Value("${auth.login-guard.ip.capacity:200}") double ipCapacity,
+            @Value("${auth.login-guard.ip.refill-per-minute:600}") double ipRefillPerMinute,
+            @Value("${auth.login-guard.max-tracked:100000}") long maxTracked,
+            @Value("${auth.login-guard.refresh-interval:PT1M}") Duration refreshInterval) {
+        this.adminRepository = adminRepository;
+        this.studentRepository = studentRepository;
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPerSecond = emailRefillPerMinute / 60d;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerSecond = ipRefillPerMinute / 60d;
+        this.refreshInterval = refreshInterval;
+        this.emailBuckets = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterAccess(Duration.ofMinutes(15))
+                .build();
+        this.ipBuckets = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterAccess(Duration.ofMinutes(15))
+                .build();
+        this.unknownEmailCounter = Counter.builder("auth.login.rejected").tag("reason", "unknown_email")
+                .register(meterRegistry);
+        this.rateLimitedCounter = Counter.builder("auth.login.rejected").tag("reason", "rate_limited")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reload();
+        refresher.scheduleWithFixedDelay(this::reload, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    void reload() {
+        try {
+            Set<String> admins = ConcurrentHashMap.newKeySet();
+            admins.addAll(adminRepository.findAllEmails());
+            Set<String> students = ConcurrentHashMap.newKeySet();
+            students.addAll(studentRepository.findAllEmails());
+            adminEmails = admins;
+            studentEmails = students;
+            loaded = true;
+        } catch (RuntimeException e) {
+            logger.warn("Could not reload known login emails, keeping the previous sets", e);
+        }
+    }
+
+    // One token from both the email's and the client's bucket; false means reject with 429
+    public boolean tryAcquire(String email, String clientIp) {
+        TokenBucket ip = ipBuckets.get(clientIp, k -> new TokenBucket(ipCapacity, ipRefillPerSecond));
+        TokenBucket user = emailBuckets.get(email == null ? "" : email,
+                k -> new TokenBucket(emailCapacity, emailRefillPerSecond));
+        if (ip.tryConsume() && user.tryConsume())
+            return true;
+        rateLimitedCounter.increment();
+        return false;
+    }
+
+    // userType is "admin" or "student"; before the first load everything is treated as known.
+    // The sets are authoritative between reloads: a miss is rejected without a query.
+    public boolean mayExist(String userType, String email) {
+        if (!loaded)
+            return true;
+        boolean known = ("admin".equals(userType) ? adminEmails : studentEmails).contains(email);
+        if (!known)
+            unknownEmailCounter.increment();
+        return known;
+    }
+
+    public void adminEmailChanged(String oldEmail, String newEmail) {
+        changed(adminEmails, oldEmail, newEmail);
+    }
+
+    public void studentEmailChanged(String oldEmail, String newEmail) {
+        changed(studentEmails, oldEmail, newEmail);
+    }
+
+    private void changed(Set<String> emails, String oldEmail, String newEmail) {
+        if (oldEmail != null)
+            emails.remove(oldEmail);
+        if (newEmail != null)
+            emails.add(newEmail);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
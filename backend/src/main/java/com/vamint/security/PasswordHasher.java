@@ -0,0 +1,148 @@
+package com.vamint.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// BCrypt hashing on a small dedicated pool with a bounded queue, so a login storm queues
+// (or is rejected fast) here instead of holding every Tomcat request thread on the KDF.
+// Rows stored before hashing was introduced hold plaintext; they still verify and are
+// flagged by needsRehash so the caller can upgrade them on the next successful login.
+@Component
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer hashTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHasher(MeterRegistry meterRegistry,
+            @Value("${auth.hashing.threads:4}") int threads,
+            @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.hashing.timeout:PT5S}") Duration timeout,
+            @Value("${auth.hashing.bcrypt-strength:10}") int strength) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.timeout = timeout;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "password-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("auth.password.hash")
+                .description("Time spent hashing or verifying a password")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait")
+                .description("Time a hashing task waited for a hasher thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected")
+                .description("Hashing tasks rejected because the queue was full or the wait timed out")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    // Bulk imports: at most one task per hasher thread is in flight at a time, so logins queued
+    // behind an import wait for one hash, not the whole batch
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        int window = executor.getCorePoolSize();
+        for (int from = 0; from < rawPasswords.size(); from += window) {
+            List<Future<String>> futures = new ArrayList<>(window);
+            for (String raw : rawPasswords.subList(from, Math.min(from + window, rawPasswords.size())))
+                futures.add(submit(() -> encoder.encode(raw)));
+            for (Future<String> future : futures)
+                hashes.add(await(future));
+        }
+        return hashes;
+    }
+
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null)
+            return false;
+        if (!isHashed(storedPassword)) {
+            // legacy plaintext row: constant-time compare, no pool needed
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        return run(() -> encoder.matches(rawPassword, storedPassword));
+    }
+
+    public boolean needsRehash(String storedPassword) {
+        return !isHashed(storedPassword) || encoder.upgradeEncoding(storedPassword);
+    }
+
+    private boolean isHashed(String storedPassword) {
+        return storedPassword.startsWith("$2a$") || storedPassword.startsWith("$2b$")
+                || storedPassword.startsWith("$2y$");
+    }
+
+    // Throws RejectedExecutionException when the pool is saturated or the wait exceeds the timeout
+    private <T> T run(Callable<T> task) {
+        return await(submit(task));
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        long submitted = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new RejectedExecutionException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,9 @@
+package com.vamint.security;
+
+// Verified contents of a session token; role is "admin" or "student"
+public record SessionToken(String role, Long userId, long expiresAt) {
+
+    public boolean isAdmin() {
+        return "admin".equals(role);
+    }
+}
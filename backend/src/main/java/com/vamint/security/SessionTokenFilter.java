@@ -0,0 +1,87 @@
+package com.vamint.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+
+// Checks the bearer token on /api/admin/** (admins only) and /api/student/** (students may only
+// read their own /api/student/{id}/... resources). Purely in-memory: no repository lookups.
+@Component
+@RequiredArgsConstructor
+public class SessionTokenFilter extends OncePerRequestFilter {
+
+    public static final String SESSION_ATTRIBUTE = "vamint.session";
+    private static final String BEARER = "Bearer ";
+    private static final Set<String> SHARED_STUDENT_ROUTES = Set.of("lectures");
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    private final SessionTokenService sessionTokenService;
+
+    @Value("${auth.token.enforce:true}")
+    private boolean enforce;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = lookupPath(request);
+        return !enforce || "OPTIONS".equals(request.getMethod())
+                || !(path.startsWith("/api/admin/") || path.startsWith("/api/student/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        Optional<SessionToken> session = header != null && header.startsWith(BEARER)
+                ? sessionTokenService.verify(header.substring(BEARER.length()))
+                : Optional.empty();
+        if (session.isEmpty()) {
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Missing or invalid session token");
+            return;
+        }
+        if (!isAllowed(session.get(), lookupPath(request))) {
+            reject(response, HttpServletResponse.SC_FORBIDDEN, "Not allowed");
+            return;
+        }
+        request.setAttribute(SESSION_ATTRIBUTE, session.get());
+        chain.doFilter(request, response);
+    }
+
+    private boolean isAllowed(SessionToken session, String path) {
+        if (session.isAdmin())
+            return true;
+        if (path.startsWith("/api/admin/"))
+            return false;
+        // /api/student/{studentId}/... is scoped to the caller; only the listed routes are shared
+        String rest = path.substring("/api/student/".length());
+        int slash = rest.indexOf('/');
+        String first = slash < 0 ? rest : rest.substring(0, slash);
+        if (SHARED_STUDENT_ROUTES.contains(first))
+            return true;
+        return !first.isEmpty() && first.chars().allMatch(Character::isDigit)
+                && first.equals(String.valueOf(session.userId()));
+    }
+
+    // The path Spring MVC matches handlers on: decoded, ";" parameters and duplicate slashes
+    // removed. Checking the raw URI would let /api/admin;x/... or /api/%61dmin/... slip past.
+    private static String lookupPath(HttpServletRequest request) {
+        return URL_PATH_HELPER.getLookupPathForRequest(request);
+    }
+
+    private void reject(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
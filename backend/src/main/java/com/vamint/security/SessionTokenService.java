@@ -0,0 +1,102 @@
+package com.vamint.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Stateless HMAC-SHA256 session tokens: "<kid>.<base64url(role:id:exp)>.<base64url(mac)>".
+// Verification needs only the key table, so any backend node can check a token without a
+// database or shared session store. Rotation: add the new key, make it active, and drop the
+// old one once every token signed with it has expired.
+@Component
+public class SessionTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, SecretKeySpec> keys = new HashMap<>();
+    private final String activeKeyId;
+    private final Duration ttl;
+
+    // keys: comma-separated "kid:secret" pairs
+    public SessionTokenService(@Value("${auth.token.keys}") String keys,
+            @Value("${auth.token.active-key}") String activeKeyId,
+            @Value("${auth.token.ttl:PT12H}") Duration ttl) {
+        for (String entry : keys.split(",")) {
+            int split = entry.indexOf(':');
+            if (split <= 0)
+                throw new IllegalArgumentException("auth.token.keys entries must be kid:secret");
+            String kid = entry.substring(0, split).trim();
+            byte[] secret = entry.substring(split + 1).trim().getBytes(StandardCharsets.UTF_8);
+            if (secret.length < 32)
+                throw new IllegalArgumentException("auth.token.keys secret for " + kid + " must be at least 32 bytes");
+            this.keys.put(kid, new SecretKeySpec(secret, ALGORITHM));
+        }
+        if (!this.keys.containsKey(activeKeyId))
+            throw new IllegalArgumentException("auth.token.active-key " + activeKeyId + " is not in auth.token.keys");
+        this.activeKeyId = activeKeyId;
+        this.ttl = ttl;
+    }
+
+    public SessionToken issue(String role, Long userId) {
+        return new SessionToken(role, userId, Instant.now().plus(ttl).getEpochSecond());
+    }
+
+    public String sign(SessionToken token) {
+        String payload = ENCODER.encodeToString(
+                (token.role() + ":" + token.userId() + ":" + token.expiresAt()).getBytes(StandardCharsets.UTF_8));
+        String signed = activeKeyId + "." + payload;
+        return signed + "." + ENCODER.encodeToString(mac(keys.get(activeKeyId), signed));
+    }
+
+    // Empty for malformed, unknown-key, tampered or expired tokens
+    public Optional<SessionToken> verify(String token) {
+        if (token == null)
+            return Optional.empty();
+        int first = token.indexOf('.');
+        int last = token.lastIndexOf('.');
+        if (first <= 0 || last <= first)
+            return Optional.empty();
+        SecretKeySpec key = keys.get(token.substring(0, first));
+        if (key == null)
+            return Optional.empty();
+        try {
+            byte[] expected = mac(key, token.substring(0, last));
+            if (!MessageDigest.isEqual(expected, DECODER.decode(token.substring(last + 1))))
+                return Optional.empty();
+            String[] parts = new String(DECODER.decode(token.substring(first + 1, last)), StandardCharsets.UTF_8)
+                    .split(":");
+            if (parts.length != 3)
+                return Optional.empty();
+            SessionToken session = new SessionToken(parts[0], Long.valueOf(parts[1]), Long.parseLong(parts[2]));
+            if (session.expiresAt() < Instant.now().getEpochSecond())
+                return Optional.empty();
+            return Optional.of(session);
+        } catch (IllegalArgumentException e) {
+            // bad base64 or number
+            return Optional.empty();
+        }
+    }
+
+    private byte[] mac(SecretKeySpec key, String data) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC unavailable", e);
+        }
+    }
+}
@@ -2,18 +2,26 @@ package com.vamint.service;
 
 import com.vamint.dto.CreateAdminRequest;
 import com.vamint.entity.Admin;
+import com.vamint.exception.ConflictException;
+import com.vamint.exception.NotFoundException;
 import com.vamint.repository.AdminRepository;
+import com.vamint.security.LoginGuard;
+import com.vamint.security.PasswordHasher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class AdminService {
 
     private final AdminRepository adminRepository;
+    private final PasswordHasher passwordHasher;
+    private final LoginGuard loginGuard;
 
     @Value("${default.profile.imageUrl:}")
     private String defaultProfileImageUrl;
@@ -23,53 +31,62 @@ public class AdminService {
     }
 
     public Admin findById(Long id) {
-        return adminRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Admin not found with id: " + id));
+        return findOptionalById(id)
+                .orElseThrow(() -> new NotFoundException("Admin not found with id: " + id));
     }
 
     public Admin findByEmail(String email) {
-        return adminRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Admin not found with email: " + email));
+        return findOptionalByEmail(email)
+                .orElseThrow(() -> new NotFoundException("Admin not found with email: " + email));
+    }
+
+    public Optional<Admin> findOptionalById(Long id) {
+        return adminRepository.findById(id);
+    }
+
+    public Optional<Admin> findOptionalByEmail(String email) {
+        return adminRepository.findByEmail(email);
     }
 
     public Admin createAdmin(CreateAdminRequest request) {
         if (adminRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Admin with email " + request.getEmail() + " already exists");
+            throw new ConflictException("Admin with email " + request.getEmail() + " already exists");
         }
 
         Admin admin = new Admin();
         admin.setName(request.getName());
         admin.setEmail(request.getEmail());
-        admin.setPassword(request.getPassword());
+        admin.setPassword(passwordHasher.encode(request.getPassword()));
 
-        return adminRepository.save(admin);
+        Admin saved = adminRepository.save(admin);
+        loginGuard.adminEmailChanged(null, saved.getEmail());
+        return saved;
     }
 
     // Create admin with imageUrl required
     public Admin createAdmin(CreateAdminRequest request, String imageUrl) {
         if (adminRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Admin with email " + request.getEmail() + " already exists");
+            throw new ConflictException("Admin with email " + request.getEmail() + " already exists");
         }
 
         Admin admin = new Admin();
         admin.setName(request.getName());
         admin.setEmail(request.getEmail());
-        admin.setPassword(request.getPassword());
+        admin.setPassword(passwordHasher.encode(request.getPassword()));
         String toSave = imageUrl != null ? imageUrl
                 : (defaultProfileImageUrl != null && !defaultProfileImageUrl.isBlank() ? defaultProfileImageUrl : null);
         if (toSave != null)
             admin.setImageUrl(toSave);
 
-        return adminRepository.save(admin);
+        Admin saved = adminRepository.save(admin);
+        loginGuard.adminEmailChanged(null, saved.getEmail());
+        return saved;
     }
 
     public boolean authenticateAdmin(String email, String password) {
-        try {
-            Admin admin = findByEmail(email);
-            return admin.getPassword().equals(password);
-        } catch (RuntimeException e) {
-            return false;
-        }
+        return findOptionalByEmail(email)
+                .map(admin -> passwordHasher.matches(password, admin.getPassword()))
+                .orElse(false);
     }
 
     public Admin updateAdmin(Long id, CreateAdminRequest request) {
@@ -77,14 +94,17 @@ public class AdminService {
 
         // Check if email is being changed and if it already exists
         if (!admin.getEmail().equals(request.getEmail()) && adminRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Admin with email " + request.getEmail() + " already exists");
+            throw new ConflictException("Admin with email " + request.getEmail() + " already exists");
         }
 
+        String previousEmail = admin.getEmail();
         admin.setName(request.getName());
         admin.setEmail(request.getEmail());
-        admin.setPassword(request.getPassword());
+        admin.setPassword(passwordHasher.encode(request.getPassword()));
 
-        return adminRepository.save(admin);
+        Admin saved = adminRepository.save(admin);
+        loginGuard.adminEmailChanged(previousEmail, saved.getEmail());
+        return saved;
     }
 
     public Admin updateAdmin(Long id, CreateAdminRequest request, String imageUrl) {
@@ -100,8 +120,15 @@ public class AdminService {
         return admin;
     }
 
+    // Lazy migration: replaces a plaintext or outdated hash after a successful login
+    @Transactional
+    public void updatePasswordHash(Long id, String passwordHash) {
+        adminRepository.updatePassword(id, passwordHash);
+    }
+
     public void deleteAdmin(Long id) {
         Admin admin = findById(id);
         adminRepository.delete(admin);
+        loginGuard.adminEmailChanged(admin.getEmail(), null);
     }
 }
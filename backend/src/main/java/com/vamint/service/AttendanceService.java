@@ -1,20 +1,32 @@
 package com.vamint.service;
 
+import com.vamint.cache.AttendanceStatsCache;
 import com.vamint.dto.AttendanceResponse;
+import com.vamint.dto.BulkAttendanceRequest;
+import com.vamint.dto.BulkAttendanceResponse;
+import com.vamint.dto.BulkAttendanceResult;
 import com.vamint.dto.AttendanceStatsResponse;
 import com.vamint.dto.LectureAttendanceStatsResponse;
 import com.vamint.dto.MarkAttendanceRequest;
-import com.vamint.entity.Attendance;
 import com.vamint.entity.Lecture;
-import com.vamint.entity.Student;
+import com.vamint.entity.LectureAttendanceSummary;
+import com.vamint.entity.StudentAttendanceSummary;
+import com.vamint.exception.NotFoundException;
 import com.vamint.repository.AttendanceRepository;
+import com.vamint.repository.projection.AttendanceMark;
+import com.vamint.repository.projection.AttendanceRow;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -23,72 +35,133 @@ public class AttendanceService {
     private final AttendanceRepository attendanceRepository;
     private final StudentService studentService;
     private final LectureService lectureService;
+    private final AttendanceStatsCache attendanceStatsCache;
+    private final AttendanceSummaryService attendanceSummaryService;
+
+    private static final int MAX_DETAILS_PAGE_SIZE = 500;
     
+    @Transactional
     public AttendanceResponse markAttendance(MarkAttendanceRequest request) {
-        Student student = studentService.findById(request.getStudentId());
-        Lecture lecture = lectureService.findById(request.getLectureId());
-        
-        Optional<Attendance> existingAttendance = attendanceRepository.findByStudentAndLecture(student, lecture);
-        
-        Attendance attendance;
-        if (existingAttendance.isPresent()) {
-            attendance = existingAttendance.get();
-            attendance.setPresent(request.getPresent());
-        } else {
-            attendance = new Attendance();
-            attendance.setStudent(student);
-            attendance.setLecture(lecture);
-            attendance.setPresent(request.getPresent());
+        AttendanceRow row;
+        try {
+            row = attendanceRepository.upsert(request.getStudentId(), request.getLectureId(), request.getPresent());
+        } catch (DataIntegrityViolationException e) {
+            // foreign key violation: the student or lecture does not exist
+            throw new NotFoundException("Student " + request.getStudentId() + " or lecture " + request.getLectureId()
+                    + " not found");
         }
-        
-        Attendance savedAttendance = attendanceRepository.save(attendance);
+        boolean inserted = Boolean.TRUE.equals(row.getInserted());
+        attendanceSummaryService.applyMark(request.getStudentId(), request.getLectureId(), inserted,
+                row.getPreviousPresent(), row.getPresent());
+        // a null previous value on an update means a raced insert: treat it as changed
+        boolean changed = inserted || !row.getPresent().equals(row.getPreviousPresent());
+        if (changed)
+            attendanceStatsCache.invalidateAfterCommit(List.of(request.getStudentId()));
         
         return new AttendanceResponse(
-            savedAttendance.getId(),
-            savedAttendance.getStudent().getName(),
-            savedAttendance.getStudent().getRollNo(),
-            savedAttendance.getLecture().getTitle(),
-            savedAttendance.getPresent()
+            row.getId(),
+            row.getStudentName(),
+            row.getStudentRollNo(),
+            row.getLectureTitle(),
+            row.getPresent()
         );
     }
     
-    public List<AttendanceResponse> getAttendanceForLecture(Long lectureId) {
+    // Marks a whole roster for one lecture: one IN query for students, one for existing rows,
+    // and the changed rows upserted as JDBC batches inside one transaction.
+    @Transactional
+    public BulkAttendanceResponse markLectureAttendance(Long lectureId, BulkAttendanceRequest request) {
         Lecture lecture = lectureService.findById(lectureId);
-        return attendanceRepository.findByLecture(lecture)
-            .stream()
-            .map(attendance -> new AttendanceResponse(
-                attendance.getId(),
-                attendance.getStudent().getName(),
-                attendance.getStudent().getRollNo(),
-                attendance.getLecture().getTitle(),
-                attendance.getPresent()
-            ))
-            .collect(Collectors.toList());
+        Map<Long, Boolean> marks = request.getAttendance();
+
+        Set<Long> studentIds = studentService.findExistingIds(marks.keySet());
+        Map<Long, AttendanceMark> existing = new HashMap<>();
+        if (!studentIds.isEmpty()) {
+            for (AttendanceMark mark : attendanceRepository.findMarks(lectureId, studentIds)) {
+                existing.put(mark.getStudentId(), mark);
+            }
+        }
+
+        List<BulkAttendanceResult> results = new ArrayList<>(marks.size());
+        Map<Long, BulkAttendanceResult> created = new HashMap<>();
+        Map<Long, Boolean> toWrite = new HashMap<>();
+        for (Map.Entry<Long, Boolean> entry : marks.entrySet()) {
+            Long studentId = entry.getKey();
+            Boolean present = entry.getValue();
+            BulkAttendanceResult result = new BulkAttendanceResult(studentId, null, null, present);
+            results.add(result);
+
+            if (present == null) {
+                result.setStatus("INVALID");
+                continue;
+            }
+            if (!studentIds.contains(studentId)) {
+                result.setStatus("STUDENT_NOT_FOUND");
+                continue;
+            }
+
+            AttendanceMark previous = existing.get(studentId);
+            if (previous == null) {
+                result.setStatus("CREATED");
+                created.put(studentId, result);
+            } else if (!present.equals(previous.getPresent())) {
+                result.setStatus("UPDATED");
+                result.setAttendanceId(previous.getId());
+            } else {
+                result.setStatus("UNCHANGED");
+                result.setAttendanceId(previous.getId());
+                continue;
+            }
+            toWrite.put(studentId, present);
+        }
+
+        attendanceRepository.upsertAll(lectureId, toWrite);
+        attendanceSummaryService.refresh(lectureId, toWrite.keySet());
+        attendanceStatsCache.invalidateAfterCommit(toWrite.keySet());
+        if (!created.isEmpty()) {
+            for (AttendanceMark mark : attendanceRepository.findMarks(lectureId, created.keySet())) {
+                created.get(mark.getStudentId()).setAttendanceId(mark.getId());
+            }
+        }
+
+        int failed = (int) results.stream()
+            .filter(r -> "INVALID".equals(r.getStatus()) || "STUDENT_NOT_FOUND".equals(r.getStatus()))
+            .count();
+        return new BulkAttendanceResponse(lecture.getId(), results.size() - failed, failed, results);
+    }
+
+    public List<AttendanceResponse> getAttendanceForLecture(Long lectureId) {
+        List<AttendanceResponse> attendance = attendanceRepository.findResponsesByLectureId(lectureId);
+        if (attendance.isEmpty() && !lectureService.existsById(lectureId)) {
+            throw new NotFoundException("Lecture not found with id: " + lectureId);
+        }
+        return attendance;
     }
     
     public AttendanceStatsResponse getStudentAttendanceStats(Long studentId) {
-        Student student = studentService.findById(studentId);
-        
-        Long presentCount = attendanceRepository.countPresentByStudent(student);
-        Long absentCount = attendanceRepository.countAbsentByStudent(student);
-        Long totalCount = attendanceRepository.countTotalByStudent(student);
-        
-        Double attendancePercentage = totalCount > 0 ? (presentCount.doubleValue() / totalCount.doubleValue()) * 100 : 0.0;
-        
-        return new AttendanceStatsResponse(totalCount, presentCount, absentCount, attendancePercentage);
+        return attendanceStatsCache.get(studentId, id -> {
+            StudentAttendanceSummary summary = attendanceSummaryService.getStudentSummary(id);
+            // only an empty summary needs to tell "no attendance yet" apart from "no such student"
+            if (summary.getTotalCount() == 0 && !studentService.existsById(id)) {
+                throw new NotFoundException("Student not found with id: " + id);
+            }
+            return new AttendanceStatsResponse(summary.getTotalCount(), summary.getPresentCount());
+        });
     }
     
-    public LectureAttendanceStatsResponse getLectureAttendanceStats(Long lectureId) {
+    // Counts come from the lecture summary row; details are only read when asked for, one keyset page at a time
+    public LectureAttendanceStatsResponse getLectureAttendanceStats(Long lectureId, boolean details,
+            String afterRollNo, int size) {
         Lecture lecture = lectureService.findById(lectureId);
-        List<AttendanceResponse> attendanceDetails = getAttendanceForLecture(lectureId);
+        LectureAttendanceSummary summary = attendanceSummaryService.getLectureSummary(lectureId);
         
-        Long presentCount = attendanceDetails.stream().mapToLong(a -> a.getPresent() ? 1 : 0).sum();
-        Long absentCount = attendanceDetails.stream().mapToLong(a -> !a.getPresent() ? 1 : 0).sum();
-        Long totalStudents = (long) attendanceDetails.size();
+        Long totalStudents = summary.getTotalCount();
+        Long presentCount = summary.getPresentCount();
+        Long absentCount = totalStudents - presentCount;
         
         Double attendancePercentage = totalStudents > 0 ? (presentCount.doubleValue() / totalStudents.doubleValue()) * 100 : 0.0;
         
-        return new LectureAttendanceStatsResponse(
+        LectureAttendanceStatsResponse response = new LectureAttendanceStatsResponse(
             lecture.getId(),
             lecture.getTitle(),
             lecture.getDateTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")),
@@ -96,7 +169,19 @@ public class AttendanceService {
             presentCount,
             absentCount,
             attendancePercentage,
-            attendanceDetails
+            null
         );
+        if (details) {
+            int pageSize = Math.max(1, Math.min(size, MAX_DETAILS_PAGE_SIZE));
+            // one extra row tells us whether another page exists
+            List<AttendanceResponse> page = attendanceRepository.findResponsesByLectureId(lectureId, afterRollNo,
+                PageRequest.of(0, pageSize + 1));
+            if (page.size() > pageSize) {
+                page = page.subList(0, pageSize);
+                response.setNextCursor(page.get(pageSize - 1).getStudentRollNo());
+            }
+            response.setAttendanceDetails(page);
+        }
+        return response;
     }
 }
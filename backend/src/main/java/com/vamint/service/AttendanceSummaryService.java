@@ -0,0 +1,90 @@
+package com.vamint.service;
+
+import com.vamint.cache.AttendanceStatsCache;
+import com.vamint.dto.AttendanceSummaryCheckResponse;
+import com.vamint.entity.LectureAttendanceSummary;
+import com.vamint.entity.StudentAttendanceSummary;
+import com.vamint.repository.LectureAttendanceSummaryRepository;
+import com.vamint.repository.StudentAttendanceSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+// Keeps student_attendance_summary / lecture_attendance_summary in step with attendances.
+// Every method is meant to run inside the caller's write transaction.
+@Service
+@RequiredArgsConstructor
+public class AttendanceSummaryService {
+
+    private final StudentAttendanceSummaryRepository studentSummaryRepository;
+    private final LectureAttendanceSummaryRepository lectureSummaryRepository;
+    private final AttendanceStatsCache attendanceStatsCache;
+
+    public StudentAttendanceSummary getStudentSummary(Long studentId) {
+        return studentSummaryRepository.findById(studentId)
+                .orElseGet(() -> new StudentAttendanceSummary(studentId, 0L, 0L));
+    }
+
+    public LectureAttendanceSummary getLectureSummary(Long lectureId) {
+        return lectureSummaryRepository.findById(lectureId)
+                .orElseGet(() -> new LectureAttendanceSummary(lectureId, 0L, 0L));
+    }
+
+    // One upserted mark; previousPresent is null when a new row was inserted
+    @Transactional
+    public void applyMark(Long studentId, Long lectureId, boolean inserted, Boolean previousPresent, boolean present) {
+        if (!inserted && previousPresent == null) {
+            // raced with a concurrent insert of the same row: recount instead of guessing
+            refresh(lectureId, List.of(studentId));
+            return;
+        }
+        long presentDelta = (present ? 1 : 0) - (previousPresent != null && previousPresent ? 1 : 0);
+        long totalDelta = inserted ? 1 : 0;
+        if (presentDelta == 0 && totalDelta == 0)
+            return;
+        studentSummaryRepository.applyDelta(studentId, presentDelta, totalDelta);
+        lectureSummaryRepository.applyDelta(lectureId, presentDelta, totalDelta);
+    }
+
+    // Recounts one lecture and the given students from the base table (bulk roll-call)
+    @Transactional
+    public void refresh(Long lectureId, Collection<Long> studentIds) {
+        if (studentIds.isEmpty())
+            return;
+        studentSummaryRepository.refresh(studentIds);
+        lectureSummaryRepository.refresh(List.of(lectureId));
+    }
+
+    @Transactional
+    public void beforeLectureDelete(Long lectureId) {
+        studentSummaryRepository.subtractLecture(lectureId);
+        lectureSummaryRepository.deleteById(lectureId);
+    }
+
+    @Transactional
+    public void beforeStudentDelete(Long studentId) {
+        lectureSummaryRepository.subtractStudent(studentId);
+        studentSummaryRepository.deleteById(studentId);
+    }
+
+    @Transactional(readOnly = true)
+    public AttendanceSummaryCheckResponse verify() {
+        return new AttendanceSummaryCheckResponse(studentSummaryRepository.countMismatches(),
+                lectureSummaryRepository.countMismatches(), false);
+    }
+
+    @Transactional
+    public AttendanceSummaryCheckResponse rebuild() {
+        AttendanceSummaryCheckResponse before = verify();
+        studentSummaryRepository.deleteAllInBatch();
+        lectureSummaryRepository.deleteAllInBatch();
+        studentSummaryRepository.insertFromAttendances();
+        lectureSummaryRepository.insertFromAttendances();
+        attendanceStatsCache.invalidateAllAfterCommit();
+        before.setRebuilt(true);
+        return before;
+    }
+}
@@ -4,16 +4,29 @@ import com.vamint.dto.LoginRequest;
 import com.vamint.dto.LoginResponse;
 import com.vamint.entity.Admin;
 import com.vamint.entity.Student;
+import com.vamint.security.LoginGuard;
+import com.vamint.security.PasswordHasher;
+import com.vamint.security.SessionToken;
+import com.vamint.security.SessionTokenService;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final AdminService adminService;
     private final StudentService studentService;
+    private final PasswordHasher passwordHasher;
+    private final SessionTokenService sessionTokenService;
+    private final LoginGuard loginGuard;
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
 
+    // Throws RejectedExecutionException when the password hashing pool is saturated
     public LoginResponse authenticate(LoginRequest request) {
         if ("admin".equals(request.getUserType())) {
             return authenticateAdmin(request);
@@ -25,30 +38,57 @@ public class AuthService {
     }
 
     private LoginResponse authenticateAdmin(LoginRequest request) {
-        try {
-            Admin admin = adminService.findByEmail(request.getEmail());
-            if (admin.getPassword().equals(request.getPassword())) {
-                return new LoginResponse(true, "Login successful", "admin", admin.getId(), admin.getName(),
-                        admin.getEmail());
-            } else {
-                return new LoginResponse(false, "Invalid password", null, null, null, null);
-            }
-        } catch (RuntimeException e) {
+        if (!loginGuard.mayExist("admin", request.getEmail())) {
             return new LoginResponse(false, "Admin not found", null, null, null, null);
         }
+        Admin admin = adminService.findOptionalByEmail(request.getEmail()).orElse(null);
+        if (admin == null) {
+            return new LoginResponse(false, "Admin not found", null, null, null, null);
+        }
+        if (passwordHasher.matches(request.getPassword(), admin.getPassword())) {
+            if (passwordHasher.needsRehash(admin.getPassword())) {
+                rehash(() -> adminService.updatePasswordHash(admin.getId(), passwordHasher.encode(request.getPassword())));
+            }
+            return withToken(new LoginResponse(true, "Login successful", "admin", admin.getId(), admin.getName(),
+                    admin.getEmail()));
+        } else {
+            return new LoginResponse(false, "Invalid password", null, null, null, null);
+        }
     }
 
     private LoginResponse authenticateStudent(LoginRequest request) {
-        try {
-            Student student = studentService.findByEmail(request.getEmail());
-            if (student.getPassword().equals(request.getPassword())) {
-                return new LoginResponse(true, "Login successful", "student", student.getId(), student.getName(),
-                        student.getEmail());
-            } else {
-                return new LoginResponse(false, "Invalid credentials", null, null, null, null);
-            }
-        } catch (RuntimeException e) {
+        if (!loginGuard.mayExist("student", request.getEmail())) {
             return new LoginResponse(false, "Student not found", null, null, null, null);
         }
+        Student student = studentService.findOptionalByEmail(request.getEmail()).orElse(null);
+        if (student == null) {
+            return new LoginResponse(false, "Student not found", null, null, null, null);
+        }
+        if (passwordHasher.matches(request.getPassword(), student.getPassword())) {
+            if (passwordHasher.needsRehash(student.getPassword())) {
+                rehash(() -> studentService.updatePasswordHash(student.getId(),
+                        passwordHasher.encode(request.getPassword())));
+            }
+            return withToken(new LoginResponse(true, "Login successful", "student", student.getId(),
+                    student.getName(), student.getEmail()));
+        } else {
+            return new LoginResponse(false, "Invalid credentials", null, null, null, null);
+        }
+    }
+
+    private LoginResponse withToken(LoginResponse response) {
+        SessionToken token = sessionTokenService.issue(response.getUserType(), response.getUserId());
+        response.setToken(sessionTokenService.sign(token));
+        response.setExpiresAt(token.expiresAt());
+        return response;
+    }
+
+    // The login itself already succeeded; a busy pool just postpones the upgrade to the next login
+    private void rehash(Runnable upgrade) {
+        try {
+            upgrade.run();
+        } catch (RejectedExecutionException e) {
+            logger.debug("Skipping password rehash, hashing pool is busy");
+        }
     }
 }
@@ -0,0 +1,154 @@
+package com.vamint.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+
+/**
+ * Turns an uploaded image into the renditions we store: a display size and a list thumbnail.
+ * The source is decoded once (subsampled while reading when it is far larger than needed), scaled,
+ * and re-encoded from raw pixels, which drops EXIF/GPS and any other metadata. Opaque images become
+ * JPEG, images with transparency PNG. Runs on the ImageUploadQueue workers, which bound how many
+ * images are decoded at once.
+ */
+@Component
+public class ImageProcessor {
+
+    private final int fullSize;
+    private final int thumbnailSize;
+    private final long maxPixels;
+    private final float jpegQuality;
+
+    public ImageProcessor(@Value("${image.rendition.full:1024}") int fullSize,
+            @Value("${image.rendition.thumbnail:160}") int thumbnailSize,
+            @Value("${image.max-pixels:40000000}") long maxPixels,
+            @Value("${image.jpeg-quality:0.85}") float jpegQuality) {
+        this.fullSize = fullSize;
+        this.thumbnailSize = thumbnailSize;
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+    }
+
+    /** @param extension "jpg" or "png", shared by both files */
+    public record Renditions(Path full, Path thumbnail, String extension) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(full);
+            Files.deleteIfExists(thumbnail);
+        }
+    }
+
+    // SHA-256 of the original bytes, streamed through a fixed buffer
+    public String contentHash(Path source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(source), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public Renditions process(Path source) throws IOException {
+        BufferedImage decoded = decode(source, fullSize);
+        boolean alpha = decoded.getColorModel().hasAlpha();
+        BufferedImage full = scale(decoded, fullSize, alpha);
+        BufferedImage thumbnail = scale(full, thumbnailSize, alpha);
+        Path fullFile = encode(full, alpha, source.resolveSibling(source.getFileName() + ".full"));
+        try {
+            Path thumbnailFile = encode(thumbnail, alpha, source.resolveSibling(source.getFileName() + ".thumb"));
+            return new Renditions(fullFile, thumbnailFile, alpha ? "png" : "jpg");
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(fullFile);
+            throw e;
+        }
+    }
+
+    private BufferedImage decode(Path source, int target) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext())
+                throw new IllegalArgumentException("Unsupported image format");
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                // header-only check, so a decompression bomb is refused before any pixels are allocated
+                if ((long) width * height > maxPixels)
+                    throw new IllegalArgumentException("Image dimensions too large: " + width + "x" + height);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (2 * target));
+                if (step > 1)
+                    param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxSide, boolean alpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxSide / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+        BufferedImage out = new BufferedImage(targetWidth, targetHeight,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private Path encode(BufferedImage image, boolean alpha, Path target) throws IOException {
+        if (alpha) {
+            ImageIO.write(image, "png", target.toFile());
+            return target;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        } finally {
+            writer.dispose();
+        }
+        return target;
+    }
+}
@@ -1,33 +1,86 @@
 package com.vamint.service;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
-import lombok.RequiredArgsConstructor;
+import com.vamint.exception.BadRequestException;
+import com.vamint.storage.ImageStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.Map;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
 
 @Service
-@RequiredArgsConstructor
 public class ImageService {
 
-    private final Cloudinary cloudinary;
+    private static final Set<String> ALLOWED_TYPES = Set.of("image/jpeg", "image/png", "image/gif");
 
-    public Map<String, Object> upload(MultipartFile file, Map<String, Object> options) throws IOException {
-        if (file == null || file.isEmpty())
-            return null;
-        @SuppressWarnings("unchecked")
-        Map<String, Object> result = (Map<String, Object>) cloudinary.uploader().upload(file.getBytes(),
-                options == null ? ObjectUtils.emptyMap() : options);
-        return result;
+    private final ImageStore imageStore;
+    private final long maxBytes;
+    private final Path spoolDir;
+
+    public ImageService(ImageStore imageStore,
+            @Value("${image.max-size:5MB}") DataSize maxSize,
+            @Value("${image.spool-dir:${java.io.tmpdir}}") String spoolDir) {
+        this.imageStore = imageStore;
+        this.maxBytes = maxSize.toBytes();
+        this.spoolDir = Path.of(spoolDir);
+    }
+
+    public String store(String key, File file, String extension) throws IOException {
+        return imageStore.store(key, file, extension);
+    }
+
+    /**
+     * Rejects oversized or non-image uploads with BadRequestException (400). Size and declared
+     * type are checked before any content is read; then only the leading bytes are read and matched
+     * against the allowed formats.
+     */
+    public void validate(MultipartFile file) {
+        if (file.getSize() > maxBytes)
+            throw new BadRequestException("Image exceeds " + maxBytes + " bytes");
+        String contentType = file.getContentType();
+        if (contentType == null || !ALLOWED_TYPES.contains(contentType.toLowerCase()))
+            throw new BadRequestException("Unsupported image type: " + contentType);
+        try (InputStream in = file.getInputStream()) {
+            if (!hasImageSignature(in.readNBytes(12)))
+                throw new BadRequestException("File content is not a supported image");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Validates the upload and moves it to a temp file owned by the caller, who must delete it.
+     * transferTo renames the multipart part when it is already on disk and otherwise copies it
+     * through a fixed-size buffer, so the image is never held in heap as a whole.
+     */
+    public Path spool(MultipartFile file) throws IOException {
+        validate(file);
+        Files.createDirectories(spoolDir);
+        Path target = Files.createTempFile(spoolDir, "upload-", ".img");
+        try {
+            Files.delete(target);
+            file.transferTo(target);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        return target;
     }
 
-    public String uploadAndGetUrl(MultipartFile file, Map<String, Object> options) throws IOException {
-        Map<String, Object> result = upload(file, options);
-        if (result == null)
-            return null;
-        return (String) result.get("secure_url");
+    private static boolean hasImageSignature(byte[] head) {
+        if (head.length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF)
+            return true; // JPEG
+        if (head.length >= 8 && Arrays.equals(Arrays.copyOf(head, 8),
+                new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' }))
+            return true;
+        return head.length >= 6 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8';
     }
 }
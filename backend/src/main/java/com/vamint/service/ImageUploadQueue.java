@@ -0,0 +1,192 @@
+package com.vamint.service;
+
+import com.vamint.entity.Admin;
+import com.vamint.entity.ImageAsset;
+import com.vamint.entity.ImageStatus;
+import com.vamint.entity.Student;
+import com.vamint.repository.AdminRepository;
+import com.vamint.repository.ImageAssetRepository;
+import com.vamint.repository.StudentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Profile images are uploaded off the request thread: the owner row is saved with the default
+// placeholder and image_status=PENDING, and a bounded worker pool resizes and uploads the spooled
+// file (deleted once the upload settles) and patches
+// image_url/thumbnail_url/READY. Failed uploads are retried with exponential backoff, then marked FAILED.
+// Storage goes through ImageService/ImageStore only; image.store=local keeps the whole path
+// on this machine.
+@Service
+public class ImageUploadQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageUploadQueue.class);
+
+    private final ImageService imageService;
+    private final ImageProcessor imageProcessor;
+    private final ImageAssetRepository imageAssetRepository;
+    private final StudentRepository studentRepository;
+    private final AdminRepository adminRepository;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retries;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+
+    public ImageUploadQueue(ImageService imageService, ImageProcessor imageProcessor,
+            ImageAssetRepository imageAssetRepository, StudentRepository studentRepository,
+            AdminRepository adminRepository,
+            @Value("${image.upload.threads:2}") int threads,
+            @Value("${image.upload.queue-capacity:100}") int queueCapacity,
+            @Value("${image.upload.max-attempts:4}") int maxAttempts,
+            @Value("${image.upload.initial-backoff:PT2S}") Duration initialBackoff,
+            @Value("${image.upload.virtual-threads:false}") boolean virtualThreads) {
+        this.imageService = imageService;
+        this.imageProcessor = imageProcessor;
+        this.imageAssetRepository = imageAssetRepository;
+        this.studentRepository = studentRepository;
+        this.adminRepository = adminRepository;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        AtomicInteger threadCount = new AtomicInteger();
+        // virtual workers (Java 21) don't hold a carrier thread while waiting on the storage call;
+        // the pool size still bounds how many images are decoded at once
+        ThreadFactory threadFactory = virtualThreads
+                ? new VirtualThreadTaskExecutor("image-upload-").getVirtualThreadFactory()
+                : r -> {
+                    Thread thread = new Thread(r, "image-upload-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.retries = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "image-upload-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void enqueue(Student student, MultipartFile image) {
+        student.setImageStatus(ImageStatus.PENDING);
+        studentRepository.updateImageStatus(student.getId(), ImageStatus.PENDING);
+        spoolAndSubmit("student", student.getId(), image);
+    }
+
+    public void enqueue(Admin admin, MultipartFile image) {
+        admin.setImageStatus(ImageStatus.PENDING);
+        adminRepository.updateImageStatus(admin.getId(), ImageStatus.PENDING);
+        spoolAndSubmit("admin", admin.getId(), image);
+    }
+
+    // the multipart temp file is gone once the request completes, so move it somewhere we own first
+    private void spoolAndSubmit(String owner, Long ownerId, MultipartFile image) {
+        Path spooled;
+        try {
+            spooled = imageService.spool(image);
+        } catch (IOException e) {
+            logger.error("Failed to spool image for {} {}, keeping placeholder", owner, ownerId, e);
+            markFailed(new Upload(owner, ownerId, null, 1));
+            return;
+        }
+        submit(new Upload(owner, ownerId, spooled, 1));
+    }
+
+    private void submit(Upload upload) {
+        try {
+            workers.execute(() -> run(upload));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Image upload queue is full, {} {} keeps its placeholder", upload.owner(), upload.ownerId());
+            markFailed(upload);
+            discard(upload);
+        }
+    }
+
+    private void run(Upload upload) {
+        try {
+            ImageAsset asset = store(upload.image());
+            if ("student".equals(upload.owner())) {
+                studentRepository.updateImage(upload.ownerId(), asset.getImageUrl(), asset.getThumbnailUrl(),
+                        ImageStatus.READY);
+            } else {
+                adminRepository.updateImage(upload.ownerId(), asset.getImageUrl(), asset.getThumbnailUrl(),
+                        ImageStatus.READY);
+            }
+            discard(upload);
+        } catch (Exception e) {
+            // undecodable or oversized images fail the same way every time
+            if (e instanceof IllegalArgumentException || upload.attempt() >= maxAttempts) {
+                logger.error("Giving up on image upload for {} {} after {} attempts", upload.owner(),
+                        upload.ownerId(), upload.attempt(), e);
+                markFailed(upload);
+                discard(upload);
+                return;
+            }
+            long delay = initialBackoff.toMillis() << (upload.attempt() - 1);
+            logger.warn("Image upload for {} {} failed (attempt {}), retrying in {} ms", upload.owner(),
+                    upload.ownerId(), upload.attempt(), delay);
+            retries.schedule(() -> submit(upload.nextAttempt()), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Identical originals share one asset: only the first is processed and uploaded. Store keys are
+    // derived from the hash, so a retry after a partial upload finds what was already stored.
+    private ImageAsset store(Path image) throws IOException {
+        String hash = imageProcessor.contentHash(image);
+        Optional<ImageAsset> existing = imageAssetRepository.findById(hash);
+        if (existing.isPresent())
+            return existing.get();
+        try (ImageProcessor.Renditions renditions = imageProcessor.process(image)) {
+            String imageUrl = imageService.store(hash, renditions.full().toFile(), renditions.extension());
+            String thumbnailUrl = imageService.store(hash + "_thumb", renditions.thumbnail().toFile(),
+                    renditions.extension());
+            imageAssetRepository.insertIfAbsent(hash, imageUrl, thumbnailUrl);
+        }
+        return imageAssetRepository.findById(hash).orElseThrow();
+    }
+
+    private void markFailed(Upload upload) {
+        if ("student".equals(upload.owner())) {
+            studentRepository.updateImageStatus(upload.ownerId(), ImageStatus.FAILED);
+        } else {
+            adminRepository.updateImageStatus(upload.ownerId(), ImageStatus.FAILED);
+        }
+    }
+
+    private void discard(Upload upload) {
+        try {
+            Files.deleteIfExists(upload.image());
+        } catch (IOException e) {
+            logger.warn("Could not delete spooled image {}", upload.image(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retries.shutdownNow();
+        workers.shutdown();
+    }
+
+    private record Upload(String owner, Long ownerId, Path image, int attempt) {
+        Upload nextAttempt() {
+            return new Upload(owner, ownerId, image, attempt + 1);
+        }
+    }
+}
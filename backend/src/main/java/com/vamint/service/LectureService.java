@@ -1,21 +1,37 @@
 package com.vamint.service;
 
 import com.vamint.dto.CreateLectureRequest;
+import com.vamint.cache.AttendanceStatsCache;
+import com.vamint.cache.UpcomingLectureCache;
+import com.vamint.dto.LecturePageResponse;
 import com.vamint.dto.LectureResponse;
 import com.vamint.entity.Lecture;
+import com.vamint.exception.BadRequestException;
+import com.vamint.exception.NotFoundException;
 import com.vamint.repository.LectureRepository;
+import com.vamint.repository.projection.LectureDescription;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class LectureService {
 
     private final LectureRepository lectureRepository;
+    private final UpcomingLectureCache upcomingLectureCache;
+    private final AttendanceStatsCache attendanceStatsCache;
+    private final AttendanceSummaryService attendanceSummaryService;
+
+    private static final int MAX_PAGE_SIZE = 500;
 
     public LectureResponse createLecture(CreateLectureRequest request) {
         Lecture lecture = new Lecture();
@@ -24,6 +40,7 @@ public class LectureService {
         lecture.setDateTime(request.getDateTime());
 
         Lecture savedLecture = lectureRepository.save(lecture);
+        upcomingLectureCache.invalidate(savedLecture.getDateTime());
         return new LectureResponse(
                 savedLecture.getId(),
                 savedLecture.getTitle(),
@@ -31,39 +48,80 @@ public class LectureService {
                 savedLecture.getDateTime());
     }
 
-    public List<LectureResponse> getAllLectures() {
-        return lectureRepository.findAllOrderByDateTimeDesc()
-                .stream()
-                .map(lecture -> new LectureResponse(
-                        lecture.getId(),
-                        lecture.getTitle(),
-                        lecture.getDescription(),
-                        lecture.getDateTime()))
-                .collect(Collectors.toList());
+    // Newest first, optionally bounded to [from, to), keyset-paginated on (dateTime, id)
+    public LecturePageResponse getLectures(LocalDateTime from, LocalDateTime to, String after, int limit,
+            boolean includeDescription) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime afterDateTime = null;
+        Long afterId = null;
+        if (after != null && !after.isBlank()) {
+            int split = after.lastIndexOf('_');
+            if (split <= 0)
+                throw new BadRequestException("Invalid cursor: " + after);
+            try {
+                afterDateTime = LocalDateTime.parse(after.substring(0, split));
+                afterId = Long.valueOf(after.substring(split + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor: " + after);
+            }
+        }
+
+        List<LectureResponse> items = lectureRepository.findWindowOrderByDateTimeDesc(from, to, afterDateTime,
+                afterId, PageRequest.of(0, pageSize + 1));
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            LectureResponse last = items.get(pageSize - 1);
+            nextCursor = last.getDateTime() + "_" + last.getId();
+        }
+        if (includeDescription)
+            fillDescriptions(items);
+        return new LecturePageResponse(items, nextCursor);
+    }
+
+    public List<LectureResponse> getUpcomingLectures(LocalDateTime to, int limit, boolean includeDescription) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return upcomingLectureCache.get(to, pageSize, includeDescription, () -> {
+            List<LectureResponse> items = lectureRepository.findUpcomingLectures(LocalDateTime.now(), to,
+                    PageRequest.of(0, pageSize));
+            if (includeDescription)
+                fillDescriptions(items);
+            return items;
+        });
     }
 
-    public List<LectureResponse> getUpcomingLectures() {
-        return lectureRepository.findUpcomingLectures(LocalDateTime.now())
-                .stream()
-                .map(lecture -> new LectureResponse(
-                        lecture.getId(),
-                        lecture.getTitle(),
-                        lecture.getDescription(),
-                        lecture.getDateTime()))
-                .collect(Collectors.toList());
+    private void fillDescriptions(List<LectureResponse> items) {
+        if (items.isEmpty())
+            return;
+        Map<Long, LectureResponse> byId = new HashMap<>();
+        items.forEach(item -> byId.put(item.getId(), item));
+        for (LectureDescription row : lectureRepository.findDescriptions(byId.keySet())) {
+            byId.get(row.getId()).setDescription(row.getDescription());
+        }
     }
 
     public Lecture findById(Long id) {
-        return lectureRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Lecture not found with id: " + id));
+        return findOptionalById(id)
+                .orElseThrow(() -> new NotFoundException("Lecture not found with id: " + id));
+    }
+
+    public Optional<Lecture> findOptionalById(Long id) {
+        return lectureRepository.findById(id);
+    }
+
+    public boolean existsById(Long id) {
+        return lectureRepository.existsById(id);
     }
 
     public LectureResponse updateLecture(Long id, com.vamint.dto.CreateLectureRequest request) {
         Lecture lecture = findById(id);
+        LocalDateTime previousDateTime = lecture.getDateTime();
         lecture.setTitle(request.getTitle());
         lecture.setDescription(request.getDescription());
         lecture.setDateTime(request.getDateTime());
         Lecture updated = lectureRepository.save(lecture);
+        upcomingLectureCache.invalidate(previousDateTime);
+        upcomingLectureCache.invalidate(updated.getDateTime());
         return new LectureResponse(
                 updated.getId(),
                 updated.getTitle(),
@@ -71,8 +129,13 @@ public class LectureService {
                 updated.getDateTime());
     }
 
+    @Transactional
     public void deleteLecture(Long id) {
         Lecture lecture = findById(id);
+        attendanceSummaryService.beforeLectureDelete(id);
         lectureRepository.delete(lecture);
+        upcomingLectureCache.invalidateAfterCommit(lecture.getDateTime());
+        // the lecture's attendance rows went with it
+        attendanceStatsCache.invalidateAllAfterCommit();
     }
 }
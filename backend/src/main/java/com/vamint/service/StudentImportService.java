@@ -0,0 +1,240 @@
+package com.vamint.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vamint.dto.CreateStudentRequest;
+import com.vamint.dto.StudentImportError;
+import com.vamint.dto.StudentImportResponse;
+import com.vamint.entity.Student;
+import com.vamint.exception.BadRequestException;
+import com.vamint.repository.StudentRepository;
+import com.vamint.security.LoginGuard;
+import com.vamint.security.PasswordHasher;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a roster (CSV with a name,email,rollNo,password header, or NDJSON of CreateStudentRequest)
+ * row by row. Duplicates are checked against sets of existing emails and roll numbers loaded once,
+ * and accepted rows are hashed and inserted in chunks: one saveAll per chunk, which Hibernate sends
+ * as JDBC batches thanks to the pooled students_seq generator. Memory stays at one chunk plus the
+ * two sets, whatever the file size.
+ */
+@Service
+@RequiredArgsConstructor
+public class StudentImportService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final StudentRepository studentRepository;
+    private final PasswordHasher passwordHasher;
+    private final LoginGuard loginGuard;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${default.profile.imageUrl:}")
+    private String defaultProfileImageUrl;
+
+    private record Row(long line, CreateStudentRequest request) {
+    }
+
+    private static final class Report {
+        int imported;
+        int failed;
+        final List<StudentImportError> errors = new ArrayList<>();
+
+        void fail(long line, String email, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS)
+                errors.add(new StudentImportError(line, email, message));
+        }
+    }
+
+    public StudentImportResponse importRoster(InputStream input, boolean ndjson) throws IOException {
+        Set<String> emails = new HashSet<>(studentRepository.findAllEmails());
+        Set<String> rollNos = new HashSet<>(studentRepository.findAllRollNos());
+        Report report = new Report();
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long lineNo = 0;
+            int[] columns = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (lineNo == 1 && line.startsWith("\uFEFF"))
+                    line = line.substring(1);
+                if (line.isBlank())
+                    continue;
+                if (!ndjson && columns == null) {
+                    columns = csvColumns(splitCsv(line));
+                    continue;
+                }
+
+                CreateStudentRequest request;
+                try {
+                    request = ndjson ? objectMapper.readValue(line, CreateStudentRequest.class)
+                            : csvRequest(splitCsv(line), columns);
+                } catch (JsonProcessingException e) {
+                    report.fail(lineNo, null, "Malformed JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                trim(request);
+
+                Set<ConstraintViolation<CreateStudentRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    report.fail(lineNo, request.getEmail(), violations.stream().map(ConstraintViolation::getMessage)
+                            .sorted().collect(Collectors.joining("; ")));
+                    continue;
+                }
+                if (emails.contains(request.getEmail())) {
+                    report.fail(lineNo, request.getEmail(), "Student with email " + request.getEmail() + " already exists");
+                    continue;
+                }
+                if (rollNos.contains(request.getRollNo())) {
+                    report.fail(lineNo, request.getEmail(),
+                            "Student with roll number " + request.getRollNo() + " already exists");
+                    continue;
+                }
+                emails.add(request.getEmail());
+                rollNos.add(request.getRollNo());
+                chunk.add(new Row(lineNo, request));
+                if (chunk.size() == CHUNK_SIZE) {
+                    insert(chunk, report);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty())
+            insert(chunk, report);
+        return new StudentImportResponse(report.imported, report.failed, report.errors);
+    }
+
+    private void insert(List<Row> chunk, Report report) {
+        List<String> hashes;
+        try {
+            hashes = passwordHasher.encodeAll(chunk.stream().map(r -> r.request().getPassword()).toList());
+        } catch (RejectedExecutionException e) {
+            chunk.forEach(r -> report.fail(r.line(), r.request().getEmail(), "Server busy, row not imported"));
+            return;
+        }
+
+        List<Student> students = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            CreateStudentRequest request = chunk.get(i).request();
+            Student student = new Student();
+            student.setName(request.getName());
+            student.setEmail(request.getEmail());
+            student.setRollNo(request.getRollNo());
+            student.setPassword(hashes.get(i));
+            if (defaultProfileImageUrl != null && !defaultProfileImageUrl.isBlank())
+                student.setImageUrl(defaultProfileImageUrl);
+            students.add(student);
+        }
+
+        try {
+            studentRepository.saveAll(students);
+            students.forEach(s -> loginGuard.studentEmailChanged(null, s.getEmail()));
+            report.imported += students.size();
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent create took an email or roll number after the sets were loaded;
+            // fall back to row-by-row so only the conflicting rows fail
+            for (int i = 0; i < students.size(); i++) {
+                Student student = students.get(i);
+                student.setId(null);
+                try {
+                    studentRepository.save(student);
+                    loginGuard.studentEmailChanged(null, student.getEmail());
+                    report.imported++;
+                } catch (DataIntegrityViolationException rowError) {
+                    report.fail(chunk.get(i).line(), student.getEmail(), "Email or roll number already exists");
+                }
+            }
+        }
+    }
+
+    // column index of name, email, rollNo, password; header names are matched loosely (roll_no, Roll No, ...)
+    private static int[] csvColumns(List<String> header) {
+        List<String> normalized = header.stream()
+                .map(h -> h.trim().toLowerCase(Locale.ROOT).replace("_", "").replace(" ", ""))
+                .toList();
+        String[] required = { "name", "email", "rollno", "password" };
+        int[] columns = new int[required.length];
+        for (int i = 0; i < required.length; i++) {
+            columns[i] = normalized.indexOf(required[i]);
+            if (columns[i] < 0)
+                throw new BadRequestException("CSV header must contain name, email, rollNo and password");
+        }
+        return columns;
+    }
+
+    private static CreateStudentRequest csvRequest(List<String> fields, int[] columns) {
+        CreateStudentRequest request = new CreateStudentRequest();
+        request.setName(field(fields, columns[0]));
+        request.setEmail(field(fields, columns[1]));
+        request.setRollNo(field(fields, columns[2]));
+        request.setPassword(field(fields, columns[3]));
+        return request;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    // passwords are taken as-is; everything else is trimmed
+    private static void trim(CreateStudentRequest request) {
+        if (request.getName() != null)
+            request.setName(request.getName().trim());
+        if (request.getEmail() != null)
+            request.setEmail(request.getEmail().trim());
+        if (request.getRollNo() != null)
+            request.setRollNo(request.getRollNo().trim());
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and doubled quotes
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -1,19 +1,40 @@
 package com.vamint.service;
 
+import com.vamint.cache.AttendanceStatsCache;
 import com.vamint.dto.CreateStudentRequest;
+import com.vamint.dto.StudentPageResponse;
+import com.vamint.dto.StudentResponse;
 import com.vamint.entity.Student;
+import com.vamint.exception.BadRequestException;
+import com.vamint.exception.ConflictException;
+import com.vamint.exception.NotFoundException;
 import com.vamint.repository.StudentRepository;
+import com.vamint.security.LoginGuard;
+import com.vamint.security.PasswordHasher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class StudentService {
 
     private final StudentRepository studentRepository;
+    private final PasswordHasher passwordHasher;
+    private final LoginGuard loginGuard;
+    private final AttendanceStatsCache attendanceStatsCache;
+    private final AttendanceSummaryService attendanceSummaryService;
+
+    private static final int MAX_PAGE_SIZE = 500;
 
     @Value("${default.profile.imageUrl:}")
     private String defaultProfileImageUrl;
@@ -22,43 +43,88 @@ public class StudentService {
         return studentRepository.findAll();
     }
 
-    public java.util.List<com.vamint.dto.StudentResponse> getAllStudentsDto() {
-        return studentRepository.findAll()
-                .stream()
-                .map(this::toDto)
-                .collect(java.util.stream.Collectors.toList());
+    // sort is "id" (default) or "rollNo"; the cursor is the last id / roll number of the previous page
+    public StudentPageResponse getStudentsPage(String after, String query, String sort, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String pattern = query == null || query.isBlank() ? null : query.trim().toLowerCase(Locale.ROOT) + "%";
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        boolean byRollNo = "rollNo".equals(sort);
+        List<StudentResponse> items = byRollNo
+                ? studentRepository.findPageByRollNo(after, pattern, page)
+                : studentRepository.findPageById(after == null ? null : parseIdCursor(after), pattern, page);
+
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            StudentResponse last = items.get(pageSize - 1);
+            nextCursor = byRollNo ? last.getRollNo() : String.valueOf(last.getId());
+        }
+        return new StudentPageResponse(items, nextCursor);
+    }
+
+    private static Long parseIdCursor(String after) {
+        try {
+            return Long.valueOf(after);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor: " + after);
+        }
     }
 
     public Student findById(Long id) {
-        return studentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
+        return findOptionalById(id)
+                .orElseThrow(() -> new NotFoundException("Student not found with id: " + id));
+    }
+
+    public boolean existsById(Long id) {
+        return studentRepository.existsById(id);
+    }
+
+    // resolves a whole roster in a single IN query; missing ids are simply absent
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        return new HashSet<>(studentRepository.findExistingIds(ids));
     }
 
     public Student findByRollNo(String rollNo) {
-        return studentRepository.findByRollNo(rollNo)
-                .orElseThrow(() -> new RuntimeException("Student not found with roll number: " + rollNo));
+        return findOptionalByRollNo(rollNo)
+                .orElseThrow(() -> new NotFoundException("Student not found with roll number: " + rollNo));
     }
 
     public Student findByEmail(String email) {
-        return studentRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Student not found with email: " + email));
+        return findOptionalByEmail(email)
+                .orElseThrow(() -> new NotFoundException("Student not found with email: " + email));
+    }
+
+    // Non-throwing lookups for paths where a miss is an expected outcome
+    public Optional<Student> findOptionalById(Long id) {
+        return studentRepository.findById(id);
+    }
+
+    public Optional<Student> findOptionalByRollNo(String rollNo) {
+        return studentRepository.findByRollNo(rollNo);
+    }
+
+    public Optional<Student> findOptionalByEmail(String email) {
+        return studentRepository.findByEmail(email);
     }
 
     public Student createStudent(CreateStudentRequest request) {
         if (studentRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Student with email " + request.getEmail() + " already exists");
+            throw new ConflictException("Student with email " + request.getEmail() + " already exists");
         }
         if (studentRepository.existsByRollNo(request.getRollNo())) {
-            throw new RuntimeException("Student with roll number " + request.getRollNo() + " already exists");
+            throw new ConflictException("Student with roll number " + request.getRollNo() + " already exists");
         }
 
         Student student = new Student();
         student.setName(request.getName());
         student.setEmail(request.getEmail());
         student.setRollNo(request.getRollNo());
-        student.setPassword(request.getPassword());
+        student.setPassword(passwordHasher.encode(request.getPassword()));
 
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        loginGuard.studentEmailChanged(null, saved.getEmail());
+        return saved;
     }
 
     // new helper to create with imageUrl
@@ -78,20 +144,23 @@ public class StudentService {
 
         // Check if email is being changed and if it already exists
         if (!student.getEmail().equals(request.getEmail()) && studentRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Student with email " + request.getEmail() + " already exists");
+            throw new ConflictException("Student with email " + request.getEmail() + " already exists");
         }
 
         // Check if roll number is being changed and if it already exists
         if (!student.getRollNo().equals(request.getRollNo()) && studentRepository.existsByRollNo(request.getRollNo())) {
-            throw new RuntimeException("Student with roll number " + request.getRollNo() + " already exists");
+            throw new ConflictException("Student with roll number " + request.getRollNo() + " already exists");
         }
 
+        String previousEmail = student.getEmail();
         student.setName(request.getName());
         student.setEmail(request.getEmail());
         student.setRollNo(request.getRollNo());
-        student.setPassword(request.getPassword());
+        student.setPassword(passwordHasher.encode(request.getPassword()));
 
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        loginGuard.studentEmailChanged(previousEmail, saved.getEmail());
+        return saved;
     }
 
     public Student updateStudent(Long id, CreateStudentRequest request, String imageUrl) {
@@ -107,9 +176,19 @@ public class StudentService {
         return student;
     }
 
+    // Lazy migration: replaces a plaintext or outdated hash after a successful login
+    @Transactional
+    public void updatePasswordHash(Long id, String passwordHash) {
+        studentRepository.updatePassword(id, passwordHash);
+    }
+
+    @Transactional
     public void deleteStudent(Long id) {
         Student student = findById(id);
+        attendanceSummaryService.beforeStudentDelete(id);
         studentRepository.delete(student);
+        loginGuard.studentEmailChanged(student.getEmail(), null);
+        attendanceStatsCache.invalidateAfterCommit(List.of(id));
     }
 
     public com.vamint.dto.StudentResponse toDto(Student student) {
@@ -118,6 +197,8 @@ public class StudentService {
                 student.getName(),
                 student.getEmail(),
                 student.getRollNo(),
-                student.getImageUrl());
+                student.getImageUrl(),
+                student.getThumbnailUrl(),
+                student.getImageStatus());
     }
 }
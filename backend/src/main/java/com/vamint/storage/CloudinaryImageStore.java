@@ -0,0 +1,27 @@
+package com.vamint.storage;
+
+import com.cloudinary.Cloudinary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "image.store", havingValue = "cloudinary", matchIfMissing = true)
+@RequiredArgsConstructor
+public class CloudinaryImageStore implements ImageStore {
+
+    private final Cloudinary cloudinary;
+
+    // Cloudinary streams a File in chunks; overwrite=false returns the existing asset for a known key
+    @Override
+    public String store(String key, File file, String extension) throws IOException {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> result = (Map<String, Object>) cloudinary.uploader().upload(file,
+                Map.of("public_id", "profiles/" + key, "overwrite", false));
+        return (String) result.get("secure_url");
+    }
+}
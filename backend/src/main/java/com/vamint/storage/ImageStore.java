@@ -0,0 +1,19 @@
+package com.vamint.storage;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Where processed images end up. Selected with image.store=cloudinary (default) or image.store=local.
+ * Keys are content-addressed (hash plus rendition suffix), so storing the same key twice is a no-op
+ * and the returned URL can be cached forever.
+ */
+public interface ImageStore {
+
+    /**
+     * Stores the file under the key and returns its public URL.
+     *
+     * @param extension "jpg" or "png"
+     */
+    String store(String key, File file, String extension) throws IOException;
+}
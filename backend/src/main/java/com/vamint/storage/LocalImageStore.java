@@ -0,0 +1,60 @@
+package com.vamint.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.regex.Pattern;
+
+// Keeps images under image.local.root and serves them through LocalImageController
+@Component
+@ConditionalOnProperty(name = "image.store", havingValue = "local")
+public class LocalImageStore implements ImageStore {
+
+    // also guards the controller against path traversal: only names we could have written resolve
+    static final Pattern NAME = Pattern.compile("[0-9a-f]{64}(_thumb)?\\.(jpg|png)");
+
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalImageStore(@Value("${image.local.root:./data/images}") String root,
+            @Value("${image.local.base-url:http://localhost:8080/images}") String baseUrl) throws IOException {
+        this.root = Files.createDirectories(Path.of(root).toAbsolutePath().normalize());
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    @Override
+    public String store(String key, File file, String extension) throws IOException {
+        String name = key + "." + extension;
+        if (!NAME.matcher(name).matches())
+            throw new IllegalArgumentException("Invalid image key: " + name);
+        Path target = root.resolve(name);
+        if (!Files.exists(target)) {
+            // copy beside the target, then rename, so readers never see a half-written file
+            Path partial = Files.createTempFile(root, name, ".part");
+            try {
+                Files.copy(file.toPath(), partial, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // same key, same content: another worker got there first
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        }
+        return baseUrl + "/" + name;
+    }
+
+    /** Resolves a served name to its file, or null when the name is not one this store writes. */
+    public Path resolve(String name) {
+        if (!NAME.matcher(name).matches())
+            return null;
+        Path path = root.resolve(name);
+        return Files.isRegularFile(path) ? path : null;
+    }
+}
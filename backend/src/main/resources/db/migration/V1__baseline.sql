@@ -0,0 +1,112 @@
+-- Baseline schema. Written to be idempotent so it also upgrades databases that were created by
+-- Hibernate's ddl-auto=update before migrations existed (those are baselined at version 0 and then
+-- run this script): tables and columns are only added when missing.
+
+-- id sequences (INCREMENT BY must equal the entity's allocationSize)
+CREATE SEQUENCE IF NOT EXISTS admins_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS students_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS lectures_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS attendances_seq INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS admins (
+    id            bigint       NOT NULL PRIMARY KEY,
+    name          varchar(255) NOT NULL,
+    email         varchar(255) NOT NULL,
+    password      varchar(255) NOT NULL,
+    image_url     varchar(255),
+    thumbnail_url varchar(255),
+    image_status  varchar(16),
+    CONSTRAINT uk_admins_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS students (
+    id            bigint       NOT NULL PRIMARY KEY,
+    name          varchar(255) NOT NULL,
+    email         varchar(255) NOT NULL,
+    roll_no       varchar(255) NOT NULL,
+    password      varchar(255) NOT NULL,
+    image_url     varchar(255),
+    thumbnail_url varchar(255),
+    image_status  varchar(16),
+    CONSTRAINT uk_students_email UNIQUE (email),
+    CONSTRAINT uk_students_roll_no UNIQUE (roll_no)
+);
+
+CREATE TABLE IF NOT EXISTS lectures (
+    id          bigint       NOT NULL PRIMARY KEY,
+    title       varchar(255) NOT NULL,
+    description text,
+    date_time   timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS attendances (
+    id         bigint  NOT NULL PRIMARY KEY,
+    student_id bigint  NOT NULL,
+    lecture_id bigint  NOT NULL,
+    present    boolean NOT NULL,
+    CONSTRAINT fk_attendances_student FOREIGN KEY (student_id) REFERENCES students (id),
+    CONSTRAINT fk_attendances_lecture FOREIGN KEY (lecture_id) REFERENCES lectures (id)
+);
+
+CREATE TABLE IF NOT EXISTS student_attendance_summary (
+    student_id    bigint NOT NULL PRIMARY KEY,
+    present_count bigint NOT NULL,
+    total_count   bigint NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS lecture_attendance_summary (
+    lecture_id    bigint NOT NULL PRIMARY KEY,
+    present_count bigint NOT NULL,
+    total_count   bigint NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS image_assets (
+    content_hash  varchar(64)  NOT NULL PRIMARY KEY,
+    image_url     varchar(255) NOT NULL,
+    thumbnail_url varchar(255) NOT NULL
+);
+
+-- columns added after some databases were created by ddl-auto
+ALTER TABLE admins ADD COLUMN IF NOT EXISTS thumbnail_url varchar(255);
+ALTER TABLE admins ADD COLUMN IF NOT EXISTS image_status varchar(16);
+ALTER TABLE students ADD COLUMN IF NOT EXISTS thumbnail_url varchar(255);
+ALTER TABLE students ADD COLUMN IF NOT EXISTS image_status varchar(16);
+
+-- One mark per (student, lecture). Older databases may hold duplicates from before the upsert
+-- (ddl-auto silently failed to add the constraint then): keep the newest row of each pair.
+DELETE FROM attendances a USING attendances b
+WHERE a.student_id = b.student_id AND a.lecture_id = b.lecture_id AND a.id < b.id;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_attendance_student_lecture') THEN
+        ALTER TABLE attendances ADD CONSTRAINT uk_attendance_student_lecture UNIQUE (student_id, lecture_id);
+    END IF;
+END $$;
+
+-- Indexes, by the queries they serve:
+--
+-- uk_attendance_student_lecture (student_id, lecture_id): the upsert's ON CONFLICT and FOR UPDATE
+--   probe, findByStudent, and the per-student summary recount.
+-- (student_id, present): present/total counts per student.
+CREATE INDEX IF NOT EXISTS idx_attendance_student_present ON attendances (student_id, present);
+-- (lecture_id, student_id) INCLUDE (present): AttendanceRepository.findResponsesByLectureId,
+--   findMarks (lecture_id = ? AND student_id IN ...) and the per-lecture summary recount, all
+--   index-only on the attendance side. Replaces the single-column idx_attendance_lecture.
+CREATE INDEX IF NOT EXISTS idx_attendance_lecture_student ON attendances (lecture_id, student_id) INCLUDE (present);
+DROP INDEX IF EXISTS idx_attendance_lecture;
+
+-- LectureRepository.findUpcomingLectures / findWindowOrderByDateTimeDesc: range scans and keyset
+-- walks on (date_time, id); INCLUDE (title) keeps the slim projection index-only.
+CREATE INDEX IF NOT EXISTS idx_lectures_date_time ON lectures (date_time, id) INCLUDE (title);
+
+-- StudentRepository.findPageById / findPageByRollNo prefix search (lower(x) LIKE 'q%')
+CREATE INDEX IF NOT EXISTS idx_students_name_lower ON students (lower(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_students_email_lower ON students (lower(email) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_students_roll_no_lower ON students (lower(roll_no) text_pattern_ops);
+
+-- Move sequences past ids handed out by the old identity columns (never backwards)
+SELECT setval('admins_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM admins), (SELECT last_value FROM admins_seq)));
+SELECT setval('students_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM students), (SELECT last_value FROM students_seq)));
+SELECT setval('lectures_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM lectures), (SELECT last_value FROM lectures_seq)));
+SELECT setval('attendances_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM attendances), (SELECT last_value FROM attendances_seq)));
@@ -0,0 +1,10 @@
+-- Fill the attendance summary tables from attendances for databases that predate them.
+-- Flyway holds its lock while this runs, so nodes starting together cannot race on the keys;
+-- ON CONFLICT keeps it a no-op for rows the application already maintains.
+INSERT INTO student_attendance_summary (student_id, present_count, total_count)
+SELECT student_id, COUNT(*) FILTER (WHERE present), COUNT(*) FROM attendances GROUP BY student_id
+ON CONFLICT (student_id) DO NOTHING;
+
+INSERT INTO lecture_attendance_summary (lecture_id, present_count, total_count)
+SELECT lecture_id, COUNT(*) FILTER (WHERE present), COUNT(*) FROM attendances GROUP BY lecture_id
+ON CONFLICT (lecture_id) DO NOTHING;
@@ -0,0 +1,23 @@
+package com.vamint;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+// Boots the whole application against a throwaway PostgreSQL with the Flyway schema applied.
+// The container is started once per JVM so every subclass shares it along with the cached context.
+@SpringBootTest(properties = {
+        "auth.token.keys=k1:integration-test-secret-0123456789abcdef",
+        "image.store=local",
+        "image.local.root=${java.io.tmpdir}/vamint-test-images",
+        "spring.jpa.show-sql=false"
+})
+public abstract class PostgresIntegrationTest {
+
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+}
@@ -0,0 +1,78 @@
+package com.vamint.controller;
+
+import com.vamint.PostgresIntegrationTest;
+import com.vamint.security.SessionTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The dashboard endpoints must stay within their query-budget.endpoints budget; X-Query-Count
+// reports the statements QueryCountingDataSource saw for the request.
+@AutoConfigureMockMvc
+class DashboardQueryCountTest extends PostgresIntegrationTest {
+
+    private static final long STUDENT_ID = 900001L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO students (id, name, email, roll_no, password) VALUES (?, ?, ?, ?, ?)",
+                STUDENT_ID, "Query Count", "query.count@example.com", "QC-0001", "x");
+        jdbcTemplate.update("INSERT INTO student_attendance_summary (student_id, present_count, total_count)"
+                + " VALUES (?, 3, 4)", STUDENT_ID);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM student_attendance_summary WHERE student_id = ?", STUDENT_ID);
+        jdbcTemplate.update("DELETE FROM students WHERE id = ?", STUDENT_ID);
+    }
+
+    @Test
+    void studentAttendanceStatsStaysWithinItsBudget() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/student/{studentId}/attendance-stats", STUDENT_ID)
+                        .header(HttpHeaders.AUTHORIZATION, bearer("student", STUDENT_ID)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(queryCount(result)).isBetween(1, 2);
+    }
+
+    @Test
+    void adminStudentPageIsASingleQuery() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/admin/students").param("limit", "20")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("admin", 1L)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(queryCount(result)).isEqualTo(1);
+    }
+
+    private String bearer(String role, Long userId) {
+        return "Bearer " + sessionTokenService.sign(sessionTokenService.issue(role, userId));
+    }
+
+    private static int queryCount(MvcResult result) {
+        String header = result.getResponse().getHeader("X-Query-Count");
+        assertThat(header).as("X-Query-Count header").isNotNull();
+        return Integer.parseInt(header);
+    }
+}
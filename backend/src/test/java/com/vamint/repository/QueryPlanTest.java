@@ -0,0 +1,138 @@
+package com.vamint.repository;
+
+import com.vamint.PostgresIntegrationTest;
+import com.vamint.metrics.QueryStats;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Calls the hot repository queries on a realistically sized, analyzed data set, captures the SQL
+// Hibernate sends through QueryCountingDataSource (bound values inlined by pgjdbc) and EXPLAINs it,
+// checking that each one is served by the index V1 created for it rather than a sequential scan.
+// A JPQL change that stops matching its index fails here.
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest extends PostgresIntegrationTest {
+
+    private static final int STUDENTS = 20000;
+    private static final int LECTURES = 20000;
+    // lectures 1..MARKED_LECTURES carry a mark for every student, written lecture by lecture
+    // the way bulk marking writes them
+    private static final int MARKED_LECTURES = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LectureRepository lectureRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentAttendanceSummaryRepository studentSummaryRepository;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO students (id, name, email, roll_no, password)"
+                + " SELECT i, 'Student ' || i, 'student' || i || '@example.com', 'R' || lpad(i::text, 6, '0'), 'x'"
+                + " FROM generate_series(1, ?) i", STUDENTS);
+        jdbcTemplate.update("INSERT INTO lectures (id, title, description, date_time)"
+                + " SELECT i, 'Lecture ' || i, repeat('notes ', 50),"
+                + " now() - interval '10000 days' + i * interval '1 day'"
+                + " FROM generate_series(1, ?) i", LECTURES);
+        jdbcTemplate.update("INSERT INTO attendances (id, student_id, lecture_id, present)"
+                + " SELECT row_number() OVER (ORDER BY l, s), s, l, (s + l) % 4 <> 0"
+                + " FROM generate_series(1, ?) l, generate_series(1, ?) s ORDER BY l, s", MARKED_LECTURES, STUDENTS);
+        // VACUUM sets the visibility map, so covering indexes can be planned as index-only scans
+        jdbcTemplate.execute("VACUUM ANALYZE students");
+        jdbcTemplate.execute("VACUUM ANALYZE lectures");
+        jdbcTemplate.execute("VACUUM ANALYZE attendances");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE attendances, lectures, students, student_attendance_summary,"
+                + " lecture_attendance_summary");
+    }
+
+    @Test
+    void upcomingLecturesWalkTheDateTimeIndex() {
+        String sql = emitted(() -> lectureRepository.findUpcomingLectures(LocalDateTime.now(), null,
+                PageRequest.of(0, 20)));
+        assertUsesIndex(sql, "lectures", "idx_lectures_date_time");
+    }
+
+    @Test
+    void lectureKeysetPageWalksTheDateTimeIndexBackwards() {
+        String sql = emitted(() -> lectureRepository.findWindowOrderByDateTimeDesc(null, null,
+                LocalDateTime.now(), 15000L, PageRequest.of(0, 51)));
+        assertUsesIndex(sql, "lectures", "idx_lectures_date_time");
+    }
+
+    @Test
+    void lectureRosterReadsAttendanceByLecture() {
+        String sql = emitted(() -> attendanceRepository.findResponsesByLectureId(5L));
+        assertUsesIndex(sql, "attendances", "idx_attendance_lecture_student");
+    }
+
+    @Test
+    void existingMarksProbeTheLectureStudentIndex() {
+        String sql = emitted(() -> attendanceRepository.findMarks(5L, List.of(1L, 2L, 3L, 500L, 15000L)));
+        assertUsesIndex(sql, "attendances", "idx_attendance_lecture_student");
+    }
+
+    @Test
+    void studentRecountReadsOnlyThatStudentsRows() {
+        String plan = explain(emitted(() -> transactionTemplate.executeWithoutResult(
+                status -> studentSummaryRepository.refresh(List.of(7L)))));
+        assertThat(plan).as(plan).doesNotContain("Seq Scan on attendances");
+        assertThat(plan).as(plan).containsAnyOf("idx_attendance_student_present", "uk_attendance_student_lecture");
+    }
+
+    @Test
+    void studentPrefixSearchUsesTheLowerCaseIndexes() {
+        String sql = emitted(() -> studentRepository.findPageById(null, "student 123%", PageRequest.of(0, 101)));
+        assertUsesIndex(sql, "students", "idx_students_name_lower");
+    }
+
+    // Runs the repository call and returns the one statement it sent, bound values inlined by the driver
+    private String emitted(Runnable call) {
+        QueryStats stats = QueryStats.beginCapturing();
+        try {
+            call.run();
+        } finally {
+            QueryStats.end();
+        }
+        List<String> statements = stats.getStatements();
+        assertThat(statements).as("statements sent").hasSize(1);
+        return statements.get(0);
+    }
+
+    private void assertUsesIndex(String sql, String table, String index) {
+        String plan = explain(sql);
+        assertThat(plan).as(plan).contains(index);
+        assertThat(plan).as(plan).doesNotContain("Seq Scan on " + table);
+    }
+
+    // EXPLAIN without ANALYZE plans the statement but never runs it
+    private String explain(String sql) {
+        List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        return String.join("\n", lines);
+    }
+}
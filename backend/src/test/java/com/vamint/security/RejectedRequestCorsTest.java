@@ -0,0 +1,29 @@
+package com.vamint.security;
+
+import com.vamint.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The CORS filter runs ahead of SessionTokenFilter, so the SPA can read a 401 and route to login
+@AutoConfigureMockMvc
+class RejectedRequestCorsTest extends PostgresIntegrationTest {
+
+    private static final String ORIGIN = "http://localhost:5173";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void unauthorizedResponseCarriesCorsHeaders() throws Exception {
+        mockMvc.perform(get("/api/admin/students").header(HttpHeaders.ORIGIN, ORIGIN))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, ORIGIN));
+    }
+}
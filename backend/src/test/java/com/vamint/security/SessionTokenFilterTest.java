@@ -0,0 +1,92 @@
+package com.vamint.security;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Access is decided on the path Spring MVC dispatches on, so encoded segments, ";" parameters and
+// doubled slashes cannot route a request around the admin or ownership checks.
+class SessionTokenFilterTest {
+
+    private SessionTokenService tokens;
+    private SessionTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokens = new SessionTokenService("k1:0123456789abcdef0123456789abcdef", "k1", Duration.ofHours(1));
+        filter = new SessionTokenFilter(tokens);
+        ReflectionTestUtils.setField(filter, "enforce", true);
+    }
+
+    @Test
+    void matrixParameterDoesNotHideTheAdminPrefix() throws Exception {
+        assertThat(status("/api/admin;x/students", student(12L))).isEqualTo(HttpServletResponse.SC_FORBIDDEN);
+    }
+
+    @Test
+    void percentEncodedSegmentDoesNotHideTheAdminPrefix() throws Exception {
+        assertThat(status("/api/%61dmin/students", student(12L))).isEqualTo(HttpServletResponse.SC_FORBIDDEN);
+    }
+
+    @Test
+    void doubledSlashStillRequiresAToken() throws Exception {
+        assertThat(status("/api//admin/students", null)).isEqualTo(HttpServletResponse.SC_UNAUTHORIZED);
+    }
+
+    @Test
+    void matrixParameterDoesNotDefeatTheOwnershipCheck() throws Exception {
+        assertThat(status("/api/student/13;x/attendance-stats", student(12L)))
+                .isEqualTo(HttpServletResponse.SC_FORBIDDEN);
+        assertThat(passes("/api/student/12;x/attendance-stats", student(12L))).isTrue();
+    }
+
+    @Test
+    void unknownStudentRoutesAreDenied() throws Exception {
+        assertThat(status("/api/student/12abc/attendance-stats", student(12L)))
+                .isEqualTo(HttpServletResponse.SC_FORBIDDEN);
+        assertThat(passes("/api/student/lectures/upcoming", student(12L))).isTrue();
+    }
+
+    @Test
+    void adminsReachAdminRoutes() throws Exception {
+        assertThat(passes("/api/admin/students", bearer("admin", 1L))).isTrue();
+    }
+
+    private String student(Long id) {
+        return bearer("student", id);
+    }
+
+    private String bearer(String role, Long userId) {
+        return "Bearer " + tokens.sign(tokens.issue(role, userId));
+    }
+
+    private int status(String uri, String authorization) throws Exception {
+        return run(uri, authorization).response().getStatus();
+    }
+
+    private boolean passes(String uri, String authorization) throws Exception {
+        return run(uri, authorization).chain().getRequest() != null;
+    }
+
+    private Result run(String uri, String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (authorization != null)
+            request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return new Result(response, chain);
+    }
+
+    private record Result(MockHttpServletResponse response, MockFilterChain chain) {
+    }
+}
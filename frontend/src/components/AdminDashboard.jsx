@@ -4,6 +4,9 @@ import { format } from 'date-fns'
 import { useAuth } from '../contexts/AuthContext'
 import { PieChart, Pie, Cell, ResponsiveContainer, BarChart, Bar, XAxis, YAxis, CartesianGrid, Tooltip, Legend } from 'recharts'
 
+const LECTURE_PAGE_SIZE = 50
+const STUDENT_PAGE_SIZE = 100
+
 const AdminDashboard = () => {
   const { user, logout } = useAuth()
   const handleLogout = () => {
@@ -12,7 +15,12 @@ const AdminDashboard = () => {
     window.location.href = '/'
   }
   const [lectures, setLectures] = useState([])
+  const [lecturesCursor, setLecturesCursor] = useState(null)
   const [students, setStudents] = useState([])
+  const [studentsCursor, setStudentsCursor] = useState(null)
+  const [studentQuery, setStudentQuery] = useState('')
+  // roll-call roster: every student, independent of the paged and searchable table above
+  const [rosterStudents, setRosterStudents] = useState([])
   const [admins, setAdmins] = useState([])
   const [selectedLecture, setSelectedLecture] = useState(null)
   const [attendance, setAttendance] = useState([])
@@ -56,26 +64,33 @@ const AdminDashboard = () => {
 
   useEffect(() => {
     fetchLectures()
-    fetchStudents()
     fetchAdmins()
   }, [])
 
-  const fetchLectures = async () => {
+  // debounce the search box; also performs the initial load with an empty query
+  useEffect(() => {
+    const timer = setTimeout(() => fetchStudents(), 300)
+    return () => clearTimeout(timer)
+  }, [studentQuery])
+
+  // One page at a time, newest first; "Load more" follows the keyset cursor
+  const fetchLectures = async (after) => {
     try {
-      const response = await adminAPI.getAllLectures()
-      setLectures(response.data)
+      const res = await adminAPI.getAllLectures({ after, limit: LECTURE_PAGE_SIZE, includeDescription: true })
+      setLectures(prev => (after ? prev.concat(res.data.items) : res.data.items))
+      setLecturesCursor(res.data.nextCursor)
     } catch (error) {
       console.error('Error fetching lectures:', error)
     }
   }
 
-  const fetchStudents = async () => {
-    setLoading(true);
+  const fetchStudents = async (after) => {
+    if (!after) setLoading(true);
     try {
-      const res = await adminAPI.getAllStudents(); // ✅ matches api.js
-      console.log('fetchStudents response:', res)
-      setStudents(res.data);
-
+      const q = studentQuery.trim() || undefined
+      const res = await adminAPI.getAllStudents({ after, q, limit: STUDENT_PAGE_SIZE })
+      setStudents(prev => (after ? prev.concat(res.data.items) : res.data.items));
+      setStudentsCursor(res.data.nextCursor);
     } catch (err) {
       console.error("Error fetching students", err, err.response ? err.response.data : null);
     } finally {
@@ -83,6 +98,22 @@ const AdminDashboard = () => {
     }
   };
 
+  // A roll-call has to cover the whole roster, so follow the cursor until it runs out
+  const fetchRoster = async () => {
+    try {
+      let all = []
+      let after
+      do {
+        const res = await adminAPI.getAllStudents({ after, sort: 'rollNo', limit: 500 })
+        all = all.concat(res.data.items)
+        after = res.data.nextCursor
+      } while (after)
+      setRosterStudents(all)
+    } catch (err) {
+      console.error('Error fetching roster', err)
+    }
+  }
+
   const fetchAdmins = async () => {
     try {
       const response = await adminAPI.getAdmins()
@@ -660,6 +691,16 @@ const handleDeleteStudent = async (id) => {
                   </div>
                 ))}
               </div>
+              {lecturesCursor && (
+                <div className="flex justify-center mt-4">
+                  <button
+                    onClick={() => fetchLectures(lecturesCursor)}
+                    className="bg-gray-100 text-gray-700 px-4 py-2 rounded-lg hover:bg-gray-200 transition-colors"
+                  >
+                    Load more
+                  </button>
+                </div>
+              )}
             </div>
           </div>
         )}
@@ -764,6 +805,14 @@ const handleDeleteStudent = async (id) => {
                 </form>
               )}
 
+              <input
+                type="search"
+                value={studentQuery}
+                onChange={(e) => setStudentQuery(e.target.value)}
+                placeholder="Search by name, email or roll number"
+                className="w-full mb-4 px-3 py-2 border border-gray-300 rounded-md focus:outline-none focus:ring-2 focus:ring-primary-500"
+              />
+
               {loading ? (
                 <div className="flex justify-center items-center h-32">
                   <div className="animate-spin rounded-full h-8 w-8 border-b-2 border-primary-600"></div>
@@ -784,7 +833,7 @@ const handleDeleteStudent = async (id) => {
                         <tr key={student.id}>
                           <td className="px-6 py-4 whitespace-nowrap text-sm font-medium text-gray-900">{student.name}</td>
                               <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-500 flex items-center">
-                                <img src={student.imageUrl || '/images/default-avatar.svg'} alt={student.name} className="w-10 h-10 rounded-full mr-3 object-cover" />
+                                <img src={student.thumbnailUrl || student.imageUrl || '/images/default-avatar.svg'} alt={student.name} className="w-10 h-10 rounded-full mr-3 object-cover" />
                                 <span>{student.email}</span>
                               </td>
                               <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-500">{student.rollNo}</td>
@@ -814,6 +863,16 @@ const handleDeleteStudent = async (id) => {
                       ))}
                     </tbody>
                   </table>
+                  {studentsCursor && (
+                    <div className="flex justify-center mt-4">
+                      <button
+                        onClick={() => fetchStudents(studentsCursor)}
+                        className="bg-gray-100 text-gray-700 px-4 py-2 rounded-lg hover:bg-gray-200 transition-colors"
+                      >
+                        Load more
+                      </button>
+                    </div>
+                  )}
                 </div>
               ) : (
                 <div className="text-center py-8 text-gray-500">
@@ -833,7 +892,7 @@ const handleDeleteStudent = async (id) => {
                     <div key={student.id} className="flex items-center justify-between p-4 border border-gray-200 rounded-lg hover:bg-gray-50">
                       <div className="flex-1">
                         <div className="flex items-center">
-                          <img src={student.imageUrl || '/images/default-avatar.svg'} alt={student.name} className="w-12 h-12 rounded-full mr-3 object-cover" />
+                          <img src={student.thumbnailUrl || student.imageUrl || '/images/default-avatar.svg'} alt={student.name} className="w-12 h-12 rounded-full mr-3 object-cover" />
                           <div>
                             <h4 className="font-medium text-gray-900">{student.name}</h4>
                             <p className="text-sm text-gray-600">Roll: {student.rollNo} | Email: {student.email}</p>
@@ -1008,6 +1067,7 @@ const handleDeleteStudent = async (id) => {
                       setSelectedLecture(lecture)
                       fetchAttendance(lecture.id)        // <-- corrected function
                       fetchLectureStats(lecture.id)      // <-- also fetch stats
+                      fetchRoster()
                     } else {
                       setSelectedLecture(null)
                       setLectureStats(null)
@@ -1113,7 +1173,7 @@ const handleDeleteStudent = async (id) => {
                         <button
                           onClick={() => {
                             const map = {}
-                            students.forEach(student => { map[student.id] = true })
+                            rosterStudents.forEach(student => { map[student.id] = true })
                             setPendingAttendance(map)
                           }}
                           className="bg-green-600 text-white px-4 py-2 rounded-lg hover:bg-green-700 transition-colors"
@@ -1123,7 +1183,7 @@ const handleDeleteStudent = async (id) => {
                         <button
                           onClick={() => {
                             const map = {}
-                            students.forEach(student => { map[student.id] = false })
+                            rosterStudents.forEach(student => { map[student.id] = false })
                             setPendingAttendance(map)
                           }}
                           className="bg-red-600 text-white px-4 py-2 rounded-lg hover:bg-red-700 transition-colors"
@@ -1135,10 +1195,7 @@ const handleDeleteStudent = async (id) => {
                             if (!selectedLecture) { alert('Select a lecture first'); return }
                             setLoading(true)
                             try {
-                              const entries = Object.entries(pendingAttendance)
-                              for (const [studentId, present] of entries) {
-                                await adminAPI.markAttendance({ studentId: Number(studentId), lectureId: selectedLecture.id, present })
-                              }
+                              await adminAPI.markLectureAttendance(selectedLecture.id, pendingAttendance)
                               alert('Attendance saved')
                               fetchAttendance(selectedLecture.id)
                               fetchLectureStats(selectedLecture.id)
@@ -1159,7 +1216,7 @@ const handleDeleteStudent = async (id) => {
 
                     {/* Individual Student Attendance */}
                     <div className="space-y-2">
-                      {students.map((student) => {
+                      {rosterStudents.map((student) => {
                         const studentAttendance = attendance.find(a => a.studentRollNo === student.rollNo)
                         const pending = pendingAttendance[student.id]
                         return (
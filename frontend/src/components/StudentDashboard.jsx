@@ -21,7 +21,7 @@ const StudentDashboard = () => {
 
   const fetchUpcomingLectures = async () => {
     try {
-      const response = await studentAPI.getUpcomingLectures()
+      const response = await studentAPI.getUpcomingLectures({ includeDescription: true })
       setUpcomingLectures(response.data)
     } catch (error) {
       console.error('Error fetching upcoming lectures:', error)
@@ -6,6 +6,16 @@ const api = axios.create({
   baseURL: API_BASE_URL,
 })
 
+// attach the session token issued at login (stored with the user by AuthContext)
+api.interceptors.request.use((config) => {
+  const savedUser = localStorage.getItem('user')
+  const token = savedUser ? JSON.parse(savedUser).token : null
+  if (token) {
+    config.headers.Authorization = `Bearer ${token}`
+  }
+  return config
+})
+
 
 export const authAPI = {
   login: (credentials) => api.post('/auth/login', credentials),
@@ -15,10 +25,10 @@ export const authAPI = {
 export const adminAPI = {
 
   createLecture: (lectureData) => api.post('/admin/lectures', lectureData),
-  getAllLectures: () => api.get('/admin/lectures'),
+  getAllLectures: (params) => api.get('/admin/lectures', { params }),
   updateLecture: (id, lectureData) => api.put(`/admin/lectures/${id}`, lectureData),
   deleteLecture: (id) => api.delete(`/admin/lectures/${id}`),
-  getAllStudents: () => api.get('/admin/students'),
+  getAllStudents: (params) => api.get('/admin/students', { params }),
   createStudent: (studentData) => api.post('/admin/students', studentData),
 
   createStudentMultipart: (formData) => api.post('/admin/students/upload', formData),
@@ -37,12 +47,13 @@ export const adminAPI = {
   deleteAdmin: (id) => api.delete(`/admin/admins/${id}`),
   
   markAttendance: (attendanceData) => api.post('/admin/attendance', attendanceData),
+  markLectureAttendance: (lectureId, attendance) => api.post(`/admin/lectures/${lectureId}/attendance/bulk`, { attendance }),
   getAttendanceForLecture: (lectureId) => api.get(`/admin/lectures/${lectureId}/attendance`),
   getLectureAttendanceStats: (lectureId) => api.get(`/admin/lectures/${lectureId}/attendance-stats`),
 }
 
 export const studentAPI = {
-  getUpcomingLectures: () => api.get('/student/lectures/upcoming'),
+  getUpcomingLectures: (params) => api.get('/student/lectures/upcoming', { params }),
   getAttendanceStats: (studentId) => api.get(`/student/${studentId}/attendance-stats`),
 }
 